@@ -0,0 +1,76 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory work behind the bracket view and round advancement:
+ * building a snapshot, reconstructing rounds and losers, sorting the losers bracket
+ * and pairing the next round by standing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BracketBenchmark {
+
+    @Param({"8", "64", "512", "2048", "8192"})
+    int players;
+
+    private BracketFixture fixture;
+    private BracketSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        fixture = new BracketFixture(players, 2);
+        snapshot = fixture.snapshot();
+    }
+
+    /**
+     * Grouping the matches by round and bracket and summing every player's wins and points
+     */
+    @Benchmark
+    public BracketSnapshot buildSnapshot() {
+        return BracketSnapshot.of(fixture.tournament, fixture.matches);
+    }
+
+    /**
+     * What the bracket view rebuilds from a snapshot on every structural change
+     */
+    @Benchmark
+    public void reconstructBracket(Blackhole blackhole) {
+        blackhole.consume(snapshot.getRoundPlayers());
+        blackhole.consume(snapshot.getLosers());
+    }
+
+    @Benchmark
+    public List<Player> sortLosers() {
+        return snapshot.getLosersByStanding();
+    }
+
+    /**
+     * What RoundAdvancementService.advance does with the matches it read: rank every player, then pair neighbours
+     */
+    @Benchmark
+    public List<Match> pairNextRound() {
+        List<Player> ranked = BracketSnapshot.of(fixture.tournament, fixture.matches).getRankedPlayers();
+        return MatchService.pairPlayers(fixture.tournament, 2, "main", ranked);
+    }
+}
@@ -0,0 +1,60 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * An in-memory tournament with a number of completed main rounds and a decided losers bracket,
+ * built the way the application builds one. Seeded, so every run measures the same bracket.
+ */
+final class BracketFixture {
+
+    final Tournament tournament;
+    final List<Player> players = new ArrayList<>();
+    final List<Match> matches = new ArrayList<>();
+
+    private final Random random = new Random(42);
+    private long nextMatchId = 1;
+
+    BracketFixture(int playerCount, int completedRounds) {
+        tournament = new Tournament("Benchmark", LocalDate.now(), LocalDate.now().plusDays(2));
+        tournament.setId(1L);
+        for (int i = 0; i < playerCount; i++) {
+            Player player = new Player("First" + i, "Last" + i);
+            player.setId((long) i + 1);
+            players.add(player);
+        }
+
+        List<Player> order = new ArrayList<>(players);
+        Collections.shuffle(order, random);
+        for (int round = 0; round < completedRounds; round++) {
+            addDecided(MatchService.pairPlayers(tournament, round, "main", order));
+            // Next round pairs players by standing, like RoundAdvancementService
+            order = snapshot().getRankedPlayers();
+        }
+
+        addDecided(MatchService.pairPlayers(tournament, 0, "losers", snapshot().getLosersByStanding()));
+    }
+
+    BracketSnapshot snapshot() {
+        return BracketSnapshot.of(tournament, matches);
+    }
+
+    private void addDecided(List<Match> created) {
+        for (Match match : created) {
+            match.setId(nextMatchId++);
+            boolean player1Wins = random.nextBoolean();
+            match.setPlayer1Points(player1Wins ? 21 : random.nextInt(20));
+            match.setPlayer2Points(player1Wins ? random.nextInt(20) : 21);
+            match.setWinner(player1Wins ? match.getPlayer1() : match.getPlayer2());
+            matches.add(match);
+        }
+    }
+}
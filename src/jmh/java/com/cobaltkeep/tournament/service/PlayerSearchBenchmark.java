@@ -0,0 +1,97 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.repository.PlayerName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search with the limit of GET /api/players/search (20 by default) and of the player view's name filter (200).
+ * The names are built from common first and last names plus a number, so a one letter prefix
+ * matches a large part of the index and a typo finds many similar names.
+ * The target is below 10 ms per search at 100k players.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Anna", "Ben", "Carla", "David", "Emma", "Felix", "Greta", "Hugo",
+            "Ida", "Jonas", "Klara", "Lukas", "Marie", "Noah", "Olga", "Paul", "Rosa", "Simon", "Tilda", "Uwe"};
+    private static final String[] LAST_NAMES = {"Berg", "Schmidt", "Müller", "Schneider", "Fischer", "Weber",
+            "Meyer", "Wagner", "Becker", "Schulz", "Hoffmann", "Koch", "Richter", "Klein", "Wolf", "Schröder",
+            "Neumann", "Schwarz", "Braun", "Zimmermann"};
+
+    @Param({"100000"})
+    int players;
+
+    @Param({"20", "200"})
+    int limit;
+
+    private PlayerSearchService index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<PlayerName> names = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            long id = i + 1;
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + i;
+            names.add(new PlayerName() {
+                @Override
+                public Long getId() { return id; }
+
+                @Override
+                public String getFirstName() { return firstName; }
+
+                @Override
+                public String getLastName() { return lastName; }
+            });
+        }
+        index = new PlayerSearchService();
+        index.loadIndex(() -> names);
+    }
+
+    /**
+     * The first letter typed: most of the index are prefix hits
+     */
+    @Benchmark
+    public List<PlayerSearchResult> oneLetterPrefix() {
+        return index.search("s", limit);
+    }
+
+    @Benchmark
+    public List<PlayerSearchResult> lastNamePrefix() {
+        return index.search("schmi", limit);
+    }
+
+    @Benchmark
+    public List<PlayerSearchResult> exactFullName() {
+        return index.search("Anna Berg1234", limit);
+    }
+
+    /**
+     * No exact or prefix hit, every name sharing a trigram is scored
+     */
+    @Benchmark
+    public List<PlayerSearchResult> typo() {
+        return index.search("Shcmidt", limit);
+    }
+}
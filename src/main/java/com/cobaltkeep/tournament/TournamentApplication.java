@@ -2,8 +2,10 @@ package com.cobaltkeep.tournament;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TournamentApplication {
     public static void main(String[] args) {
         SpringApplication.run(TournamentApplication.class, args);
@@ -0,0 +1,63 @@
+package com.cobaltkeep.tournament.controller;
+
+import com.cobaltkeep.tournament.service.MatchService;
+import com.cobaltkeep.tournament.service.ScoreResult;
+import com.cobaltkeep.tournament.service.ScoreSubmission;
+import com.cobaltkeep.tournament.service.ScoreWriteBehindQueue;
+import com.cobaltkeep.tournament.service.UpdateConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/matches")
+public class MatchController {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private ScoreWriteBehindQueue scoreWriteBehindQueue;
+
+    /**
+     * Record the points of a batch of matches, e.g. [{"matchId": 1, "player1Points": 21, "player2Points": 15}].
+     * Returns one result per item; items that fail do not prevent the others from being saved.
+     */
+    @PostMapping("/scores")
+    public ResponseEntity<List<ScoreResult>> submitScores(@RequestBody List<ScoreSubmission> submissions) {
+        if (submissions.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        try {
+            if (scoreWriteBehindQueue.isEnabled()) {
+                return ResponseEntity.ok(scoreWriteBehindQueue.submit(submissions));
+            }
+            return ResponseEntity.ok(matchService.submitScores(submissions));
+        } catch (UpdateConflictException e) {
+            // Still conflicting after the retries, the client can resubmit the batch
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * The latest score of a match, including an update that is still queued for writing
+     */
+    @GetMapping("/{id}/score")
+    public ResponseEntity<ScoreSubmission> getScore(@PathVariable Long id) {
+        Optional<ScoreSubmission> queued = scoreWriteBehindQueue.getPending(id);
+        if (queued.isPresent()) {
+            return ResponseEntity.ok(queued.get());
+        }
+        return matchService.findMatch(id).map(match -> {
+            ScoreSubmission score = new ScoreSubmission(match.getId(), match.getPlayer1Points(), match.getPlayer2Points());
+            score.setVersion(match.getVersion());
+            return ResponseEntity.ok(score);
+        }).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,52 @@
+package com.cobaltkeep.tournament.controller;
+
+import com.cobaltkeep.tournament.service.PlayerImportResult;
+import com.cobaltkeep.tournament.service.PlayerImportService;
+import com.cobaltkeep.tournament.service.PlayerSearchResult;
+import com.cobaltkeep.tournament.service.PlayerService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/players")
+public class PlayerController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerImportService playerImportService;
+
+    @GetMapping("/search")
+    public List<PlayerSearchResult> searchPlayers(@RequestParam("q") String query,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        return playerService.searchPlayers(query, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Import players from a CSV or JSON request body, which is read as it streams in
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<PlayerImportResult> importPlayers(@RequestParam(required = false) Long tournamentId,
+                                                            HttpServletRequest request) throws IOException {
+        PlayerImportService.Format format = MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? PlayerImportService.Format.JSON : PlayerImportService.Format.CSV;
+        try {
+            return ResponseEntity.ok(playerImportService.importPlayers(request.getInputStream(), format, tournamentId, result -> {}));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -1,12 +1,31 @@
 package com.cobaltkeep.tournament.controller;
 
 import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.repository.PlayerStanding;
+import com.cobaltkeep.tournament.repository.TournamentSummary;
+import com.cobaltkeep.tournament.service.MatchService;
 import com.cobaltkeep.tournament.service.TournamentService;
+import com.cobaltkeep.tournament.service.UpdateConflictException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -16,9 +35,57 @@ public class TournamentController {
     @Autowired
     private TournamentService tournamentService;
 
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Every tournament with all of its players, in the entity's JSON shape
+     *
+     * @deprecated returns every tournament and enrollment at once; use the paged /summaries or /summaries/export
+     */
+    @Deprecated
     @GetMapping
-    public List<Tournament> getAllTournaments() {
-        return tournamentService.getAllTournaments();
+    public ResponseEntity<List<Tournament>> getAllTournaments() {
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/tournaments/summaries>; rel=\"successor-version\"")
+                .body(tournamentService.getAllTournamentsWithPlayers());
+    }
+
+    /**
+     * Paged and sortable tournament summaries, e.g. ?page=0&size=20&sort=startDate,desc
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<PagedModel<TournamentSummary>> getTournamentSummaries(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.ASC) Pageable pageable) {
+        try {
+            return ResponseEntity.ok(new PagedModel<>(tournamentService.getTournamentSummaries(pageable)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * All tournament summaries as one JSON array, written while the rows are read
+     */
+    @GetMapping(value = "/summaries/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody exportTournamentSummaries() {
+        return output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                tournamentService.forEachTournamentSummary(summary -> {
+                    try {
+                        generator.writeObject(summary);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
     }
 
     @GetMapping("/{id}")
@@ -27,6 +94,24 @@ public class TournamentController {
         return tournament.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * One page of the ranked standings, best first, e.g. ?page=0&size=50. The order is fixed, a sort parameter is ignored.
+     */
+    @GetMapping("/{id}/standings")
+    public PagedModel<PlayerStanding> getStandings(@PathVariable Long id, @PageableDefault(size = 50) Pageable pageable) {
+        return new PagedModel<>(matchService.getStandings(id, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())));
+    }
+
+    /**
+     * Rank, wins and points of one player, 404 if the player has no match in the tournament
+     */
+    @GetMapping("/{id}/standings/{playerId}")
+    public ResponseEntity<PlayerStanding> getStandingOfPlayer(@PathVariable Long id, @PathVariable Long playerId) {
+        return matchService.getStandingOfPlayer(id, playerId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     public Tournament createTournament(@RequestBody Tournament tournament) {
         return tournamentService.createTournament(tournament);
@@ -37,11 +122,38 @@ public class TournamentController {
         try {
             Tournament updatedTournament = tournamentService.updateTournament(id, tournamentDetails);
             return ResponseEntity.ok(updatedTournament);
+        } catch (UpdateConflictException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Enroll players by id, players that are already enrolled are skipped
+     */
+    @PostMapping("/{id}/players")
+    public ResponseEntity<Map<String, Integer>> enrollPlayers(@PathVariable Long id, @RequestBody List<Long> playerIds) {
+        try {
+            return ResponseEntity.ok(Map.of("enrolled", tournamentService.addPlayersToTournament(id, playerIds)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @DeleteMapping("/{id}/players")
+    public ResponseEntity<Map<String, Integer>> unenrollPlayers(@PathVariable Long id, @RequestBody List<Long> playerIds) {
+        try {
+            return ResponseEntity.ok(Map.of("removed", tournamentService.removePlayersFromTournament(id, playerIds)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTournament(@PathVariable Long id) {
         tournamentService.deleteTournament(id);
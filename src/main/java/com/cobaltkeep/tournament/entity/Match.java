@@ -6,8 +6,10 @@ import jakarta.persistence.*;
 @Table(name = "matches")
 public class Match {
 
+    // Pooled sequence: ids are assigned 50 at a time without a round trip, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matches_seq")
+    @SequenceGenerator(name = "matches_seq", sequenceName = "matches_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -38,6 +40,11 @@ public class Match {
     @Column(name = "player2_points")
     private Integer player2Points;
 
+    // Incremented on every update; a write based on an older version fails instead of overwriting newer data
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // No-arg constructor
     public Match() {}
 
@@ -55,6 +62,7 @@ public class Match {
 
     // Getters and Setters
     public Long getId() { return id; }
+    public Long getVersion() { return version; }
     public void setId(Long id) { this.id = id; }
     public Player getPlayer1() { return player1; }
     public void setPlayer1(Player player1) { this.player1 = player1; }
@@ -1,11 +1,16 @@
 package com.cobaltkeep.tournament.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "players")
+@Table(name = "players", uniqueConstraints = @UniqueConstraint(name = "uk_players_name", columnNames = {"last_name", "first_name"}))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "player")
 public class Player {
 
     @Id
@@ -18,6 +23,8 @@ public class Player {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
+    // Not serialized: it would lead back to Tournament.players
+    @JsonIgnore
     @ManyToMany(mappedBy = "players")
     private Set<Tournament> tournaments = new HashSet<>();
 
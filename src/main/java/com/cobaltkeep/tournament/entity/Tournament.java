@@ -1,12 +1,16 @@
 package com.cobaltkeep.tournament.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "tournaments")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tournament")
 public class Tournament {
 
     @Id
@@ -25,7 +29,14 @@ public class Tournament {
     @Column(name = "locked")
     private boolean locked = false;
 
+    // Incremented on every update; a write based on an older version fails instead of overwriting newer data
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Cached as the ids of the players, the players themselves come from the player region
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tournament-players")
     @JoinTable(
             name = "tournament_player",
             joinColumns = @JoinColumn(name = "tournament_id"),
@@ -45,6 +56,7 @@ public class Tournament {
 
     // Getters and Setters
     public Long getId() { return id; }
+    public Long getVersion() { return version; }
     public void setId(Long id) { this.id = id; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -0,0 +1,24 @@
+package com.cobaltkeep.tournament.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.cobaltkeep.tournament.BracketLoad")
+@Label("Bracket Load")
+@Description("Bracket view opened: snapshot loaded, rounds rebuilt and, for a new bracket, the first round created")
+public class BracketLoadEvent extends TournamentEvent {
+
+    @Label("Matches")
+    private int matchCount;
+
+    @Label("Players")
+    private int playerCount;
+
+    @Label("First Round Created")
+    private boolean firstRoundCreated;
+
+    public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
+    public void setPlayerCount(int playerCount) { this.playerCount = playerCount; }
+    public void setFirstRoundCreated(boolean firstRoundCreated) { this.firstRoundCreated = firstRoundCreated; }
+}
@@ -0,0 +1,24 @@
+package com.cobaltkeep.tournament.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.cobaltkeep.tournament.BracketRender")
+@Label("Bracket Render")
+@Description("Server-side build of the bracket components")
+public class BracketRenderEvent extends TournamentEvent {
+
+    @Label("Matches")
+    private int matchCount;
+
+    @Label("Components")
+    private int componentCount;
+
+    @Label("Virtualized")
+    private boolean virtualized;
+
+    public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
+    public void setComponentCount(int componentCount) { this.componentCount = componentCount; }
+    public void setVirtualized(boolean virtualized) { this.virtualized = virtualized; }
+}
@@ -0,0 +1,124 @@
+package com.cobaltkeep.tournament.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flight recordings on demand, at /actuator/flightrecording:
+ * <ul>
+ *     <li>GET lists the recordings of this JVM, including ones started with -XX:StartFlightRecording</li>
+ *     <li>POST starts a recording, optionally with {"settings": "profile", "maxAge": "PT30M"}</li>
+ *     <li>GET /{id} dumps a recording as a .jfr file, which keeps running</li>
+ *     <li>DELETE /{id} stops and discards a recording started here; recordings started otherwise are left alone</li>
+ * </ul>
+ * The application's own events are in the "Tournament" category.
+ * Not exposed by default, see management.endpoints.web.exposure.include.
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+    private static final int STATUS_FORBIDDEN = 403;
+
+    private final Set<Long> startedRecordings = ConcurrentHashMap.newKeySet();
+
+    @ReadOperation
+    public List<Map<String, Object>> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream().map(FlightRecordingEndpoint::describe).toList();
+    }
+
+    /**
+     * @param settings "default" for continuous use or "profile" for more detail at a higher overhead
+     * @param maxAge how much history the recording keeps
+     */
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable String settings, @Nullable Duration maxAge) {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : "default");
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown settings: " + settings), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName("tournament-" + Instant.now());
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge != null ? maxAge : DEFAULT_MAX_AGE);
+        recording.start();
+        startedRecordings.add(recording.getId());
+        return new WebEndpointResponse<>(describe(recording));
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector long id) throws IOException {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        // Every dump has its own file, which goes away when the response has been written
+        Path file = Files.createTempFile("tournament-" + id + "-", ".jfr");
+        try {
+            recording.get().dump(file);
+            return new WebEndpointResponse<>(new InputStreamResource(
+                    Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> stop(@Selector long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (!startedRecordings.remove(id)) {
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+        recording.get().close();
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    private static Optional<Recording> find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", recording.getId());
+        result.put("name", recording.getName());
+        result.put("state", recording.getState());
+        result.put("startTime", recording.getStartTime());
+        result.put("maxAge", recording.getMaxAge());
+        result.put("size", recording.getSize());
+        return result;
+    }
+}
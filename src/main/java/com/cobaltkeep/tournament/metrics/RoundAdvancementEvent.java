@@ -0,0 +1,26 @@
+package com.cobaltkeep.tournament.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.cobaltkeep.tournament.RoundAdvancement")
+@Label("Round Advancement")
+@Description("Creation of the first or the next round, including the wait for the tournament lock")
+public class RoundAdvancementEvent extends TournamentEvent {
+
+    @Label("Round")
+    @Description("The round that was created or already existed, starting at 0")
+    private int round;
+
+    @Label("Matches")
+    private int matchCount;
+
+    @Label("Created")
+    @Description("False if another caller had created the round already")
+    private boolean created;
+
+    public void setRound(int round) { this.round = round; }
+    public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
+    public void setCreated(boolean created) { this.created = created; }
+}
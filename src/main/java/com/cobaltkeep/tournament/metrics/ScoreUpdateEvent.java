@@ -0,0 +1,27 @@
+package com.cobaltkeep.tournament.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.cobaltkeep.tournament.ScoreUpdate")
+@Label("Score Update")
+@Description("A write of match points or a winner, including retries after concurrent updates")
+public class ScoreUpdateEvent extends TournamentEvent {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Matches")
+    private int matchCount;
+
+    @Label("Attempts")
+    private int attempts;
+
+    public ScoreUpdateEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+}
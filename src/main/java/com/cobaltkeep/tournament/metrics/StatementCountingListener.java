@@ -0,0 +1,37 @@
+package com.cobaltkeep.tournament.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts the JDBC statements and batches Hibernate executes on the current thread.
+ * Registered for every session with hibernate.session.events.auto; {@link StatementMetricsFilter}
+ * reads the count at the end of each request, the query-count tests read it around each use case.
+ */
+public class StatementCountingListener implements SessionEventListener {
+
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Start counting from zero on the current thread
+     */
+    public static void reset() {
+        STATEMENTS.get()[0] = 0;
+    }
+
+    /**
+     * Statements executed on the current thread since the last reset
+     */
+    public static long count() {
+        return STATEMENTS.get()[0];
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        STATEMENTS.get()[0]++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        STATEMENTS.get()[0]++;
+    }
+}
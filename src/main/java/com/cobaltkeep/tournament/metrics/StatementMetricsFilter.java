@@ -0,0 +1,59 @@
+package com.cobaltkeep.tournament.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Records how many statements each HTTP request sent to the database, as tournament.request.statements
+ * tagged with the REST route, or with the Vaadin request type for UI requests
+ */
+@Component
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final Set<String> VAADIN_REQUEST_TYPES = Set.of("init", "uidl", "heartbeat", "push");
+
+    private final MeterRegistry meterRegistry;
+
+    public StatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCountingListener.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DistributionSummary.builder("tournament.request.statements")
+                    .description("JDBC statements and batches executed by one request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route(request))
+                    .register(meterRegistry)
+                    .record(StatementCountingListener.count());
+        }
+    }
+
+    // Route pattern rather than the path, so ids do not create a new series per request
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        String vaadinRequestType = request.getParameter("v-r");
+        if (vaadinRequestType == null) {
+            return "other";
+        }
+        return VAADIN_REQUEST_TYPES.contains(vaadinRequestType) ? "vaadin-" + vaadinRequestType : "vaadin";
+    }
+}
@@ -0,0 +1,25 @@
+package com.cobaltkeep.tournament.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.cobaltkeep.tournament.StatsComputation")
+@Label("Stats Computation")
+@Description("Ranked wins and points of the players of a tournament, from the standings query or a bracket snapshot")
+public class StatsComputationEvent extends TournamentEvent {
+
+    @Label("Source")
+    private String source;
+
+    @Label("Matches")
+    @Description("Matches the standings were computed from, 0 for the standings query, which aggregates them in the database")
+    private int matchCount;
+
+    @Label("Players")
+    private int playerCount;
+
+    public void setSource(String source) { this.source = source; }
+    public void setMatchCount(int matchCount) { this.matchCount = matchCount; }
+    public void setPlayerCount(int playerCount) { this.playerCount = playerCount; }
+}
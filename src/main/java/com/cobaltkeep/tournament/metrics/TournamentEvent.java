@@ -0,0 +1,44 @@
+package com.cobaltkeep.tournament.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the flight recorder events of this application. Besides the duration JFR records itself,
+ * every event has the tournament and the number of JDBC statements the operation ran on its thread.
+ * Call {@link #start()} and {@link #finish()} around the operation; when no recording is running
+ * this costs next to nothing.
+ */
+@Category("Tournament")
+@StackTrace(false)
+public abstract class TournamentEvent extends Event {
+
+    @Label("Tournament Id")
+    protected long tournamentId;
+
+    @Label("Statements")
+    @Description("JDBC statements and batches executed during the operation")
+    protected long statementCount;
+
+    private transient long statementsAtStart;
+
+    public void start() {
+        statementsAtStart = StatementCountingListener.count();
+        begin();
+    }
+
+    public void finish() {
+        end();
+        if (shouldCommit()) {
+            statementCount = StatementCountingListener.count() - statementsAtStart;
+            commit();
+        }
+    }
+
+    public void setTournamentId(Long tournamentId) {
+        this.tournamentId = tournamentId != null ? tournamentId : 0;
+    }
+}
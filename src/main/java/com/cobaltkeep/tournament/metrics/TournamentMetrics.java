@@ -0,0 +1,61 @@
+package com.cobaltkeep.tournament.metrics;
+
+import com.cobaltkeep.tournament.service.BracketSnapshotCache;
+import com.cobaltkeep.tournament.service.MatchEventBus;
+import com.cobaltkeep.tournament.service.ScoreWriteBehindQueue;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gauges for live tournaments: open bracket views and pending matches per tournament, and the
+ * size of the score write-behind queue. Only tournaments someone is watching get a row, so the
+ * number of series stays small however many tournaments exist.
+ */
+@Component
+public class TournamentMetrics {
+
+    private final MatchEventBus matchEventBus;
+    private final BracketSnapshotCache bracketSnapshotCache;
+    private final MultiGauge viewers;
+    private final MultiGauge pendingMatches;
+
+    public TournamentMetrics(MeterRegistry meterRegistry, MatchEventBus matchEventBus,
+                             BracketSnapshotCache bracketSnapshotCache, ScoreWriteBehindQueue scoreWriteBehindQueue) {
+        this.matchEventBus = matchEventBus;
+        this.bracketSnapshotCache = bracketSnapshotCache;
+        this.viewers = MultiGauge.builder("tournament.viewers")
+                .description("Open bracket views of a tournament")
+                .register(meterRegistry);
+        this.pendingMatches = MultiGauge.builder("tournament.matches.pending")
+                .description("Matches of a watched tournament without points for both players")
+                .register(meterRegistry);
+        Gauge.builder("tournament.scores.write-behind.pending", scoreWriteBehindQueue, ScoreWriteBehindQueue::size)
+                .description("Score updates waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pending matches are read from the cached bracket snapshot, which every open view has loaded,
+     * so refreshing the gauges never queries the database
+     */
+    @Scheduled(fixedDelayString = "${tournament.metrics.gauge-refresh-interval:10s}")
+    public void refreshGauges() {
+        List<MultiGauge.Row<?>> viewerRows = new ArrayList<>();
+        List<MultiGauge.Row<?>> pendingRows = new ArrayList<>();
+        matchEventBus.getListenerCounts().forEach((tournamentId, count) -> {
+            Tags tags = Tags.of("tournament", tournamentId.toString());
+            viewerRows.add(MultiGauge.Row.of(tags, count));
+            bracketSnapshotCache.getIfPresent(tournamentId).ifPresent(snapshot ->
+                    pendingRows.add(MultiGauge.Row.of(tags, snapshot.getPendingMatchCount())));
+        });
+        viewers.register(viewerRows, true);
+        pendingMatches.register(pendingRows, true);
+    }
+}
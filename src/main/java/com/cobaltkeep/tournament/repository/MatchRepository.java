@@ -2,15 +2,65 @@ package com.cobaltkeep.tournament.repository;
 
 import com.cobaltkeep.tournament.entity.Match;
 import com.cobaltkeep.tournament.entity.Tournament;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
+
+    // Wins and points per player, aggregated in the database and ranked by wins, then points
+    String RANKED_STANDINGS =
+            "WITH results AS (" +
+            "  SELECT m.player1_id AS player_id, CASE WHEN m.winner_id = m.player1_id THEN 1 ELSE 0 END AS win," +
+            "         COALESCE(m.player1_points, 0) AS points" +
+            "  FROM matches m WHERE m.tournament_id = :tournamentId" +
+            "  UNION ALL" +
+            "  SELECT m.player2_id, CASE WHEN m.winner_id = m.player2_id THEN 1 ELSE 0 END," +
+            "         COALESCE(m.player2_points, 0)" +
+            "  FROM matches m WHERE m.tournament_id = :tournamentId" +
+            "), totals AS (" +
+            "  SELECT player_id, SUM(win) AS wins, SUM(points) AS total_points FROM results GROUP BY player_id" +
+            ") " +
+            "SELECT t.player_id AS playerId, p.first_name AS firstName, p.last_name AS lastName," +
+            "       t.wins AS wins, t.total_points AS totalPoints," +
+            "       RANK() OVER (ORDER BY t.wins DESC, t.total_points DESC) AS standingRank " +
+            "FROM totals t JOIN players p ON p.id = t.player_id";
+
+    String STANDINGS_PLAYER_COUNT =
+            "SELECT COUNT(*) FROM (" +
+            "  SELECT m.player1_id FROM matches m WHERE m.tournament_id = :tournamentId" +
+            "  UNION" +
+            "  SELECT m.player2_id FROM matches m WHERE m.tournament_id = :tournamentId" +
+            ") participants";
+
     List<Match> findByTournamentAndBracketType(Tournament tournament, String bracketType);
     List<Match> findByTournamentAndBracketTypeAndRound(Tournament tournament, String bracketType, int round);
     void deleteByTournament(Tournament tournament);
     List<Match> findByTournament(Tournament tournament);
-}
\ No newline at end of file
+
+    // Every match of a tournament with its players in a single statement, ordered for grouping by bracket type and round
+    @Query("SELECT m FROM Match m JOIN FETCH m.player1 JOIN FETCH m.player2 LEFT JOIN FETCH m.winner " +
+            "JOIN FETCH m.tournament WHERE m.tournament.id = :tournamentId ORDER BY m.bracketType, m.round, m.id")
+    List<Match> findBracketByTournamentId(@Param("tournamentId") Long tournamentId);
+
+    @Query(value = RANKED_STANDINGS + " ORDER BY standingRank, playerId",
+            countQuery = STANDINGS_PLAYER_COUNT,
+            nativeQuery = true)
+    Page<PlayerStanding> findStandings(@Param("tournamentId") Long tournamentId, Pageable pageable);
+
+    // Matches by id with the players needed to derive the winner, in one statement
+    @Query("SELECT m FROM Match m JOIN FETCH m.player1 JOIN FETCH m.player2 LEFT JOIN FETCH m.winner " +
+            "JOIN FETCH m.tournament WHERE m.id IN :matchIds")
+    List<Match> findAllWithPlayersByIdIn(@Param("matchIds") Collection<Long> matchIds);
+
+    @Query(value = "SELECT * FROM (" + RANKED_STANDINGS + ") ranked WHERE ranked.playerId = :playerId", nativeQuery = true)
+    Optional<PlayerStanding> findStandingOfPlayer(@Param("tournamentId") Long tournamentId, @Param("playerId") Long playerId);
+}
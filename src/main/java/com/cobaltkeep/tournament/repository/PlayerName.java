@@ -0,0 +1,10 @@
+package com.cobaltkeep.tournament.repository;
+
+/**
+ * Id and name of a player, without loading the entity
+ */
+public interface PlayerName {
+    Long getId();
+    String getFirstName();
+    String getLastName();
+}
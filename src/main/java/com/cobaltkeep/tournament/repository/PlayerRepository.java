@@ -1,18 +1,42 @@
 package com.cobaltkeep.tournament.repository;
 
 import com.cobaltkeep.tournament.entity.Player;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface PlayerRepository extends JpaRepository<Player, Long> {
     Optional<Player> findByFirstNameAndLastName(String firstName, String lastName);
     
-    @Query("SELECT p FROM Player p WHERE p NOT IN (SELECT DISTINCT p2 FROM Tournament t JOIN t.players p2 WHERE t.id = :tournamentId)")
-    List<Player> findAvailablePlayers(@Param("tournamentId") Long tournamentId);
+    // Anti-join against the tournament's enrollments, one page at a time
+    @Query("SELECT p FROM Player p WHERE NOT EXISTS (" +
+            "SELECT 1 FROM Tournament t JOIN t.players enrolled WHERE t.id = :tournamentId AND enrolled.id = p.id)")
+    Slice<Player> findAvailablePlayers(@Param("tournamentId") Long tournamentId, Pageable pageable);
+
+    // Same anti-join, restricted to the given players, e.g. the hits of a name search
+    @Query("SELECT p FROM Player p WHERE p.id IN :playerIds AND NOT EXISTS (" +
+            "SELECT 1 FROM Tournament t JOIN t.players enrolled WHERE t.id = :tournamentId AND enrolled.id = p.id)")
+    List<Player> findAvailablePlayersByIds(@Param("tournamentId") Long tournamentId,
+                                           @Param("playerIds") Collection<Long> playerIds);
+
+    @Query("SELECT enrolled.id FROM Tournament t JOIN t.players enrolled WHERE t.id = :tournamentId")
+    Set<Long> findEnrolledPlayerIds(@Param("tournamentId") Long tournamentId);
+
+    @Query("SELECT p.id AS id, p.firstName AS firstName, p.lastName AS lastName FROM Player p")
+    List<PlayerName> findAllNames();
+
+    // Superset of the players with one of the given first names and one of the given last names
+    @Query("SELECT p.id AS id, p.firstName AS firstName, p.lastName AS lastName FROM Player p " +
+            "WHERE p.firstName IN :firstNames AND p.lastName IN :lastNames")
+    List<PlayerName> findNamesIn(@Param("firstNames") Collection<String> firstNames,
+                                 @Param("lastNames") Collection<String> lastNames);
 }
\ No newline at end of file
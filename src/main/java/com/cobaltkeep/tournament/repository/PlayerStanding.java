@@ -0,0 +1,15 @@
+package com.cobaltkeep.tournament.repository;
+
+/**
+ * Projection of one row of the ranked standings query in {@link MatchRepository}
+ */
+public interface PlayerStanding {
+    Long getPlayerId();
+    String getFirstName();
+    String getLastName();
+    Long getWins();
+    Long getTotalPoints();
+    Long getStandingRank();
+
+    default String getFullName() { return getFirstName() + " " + getLastName(); }
+}
@@ -1,16 +1,83 @@
 package com.cobaltkeep.tournament.repository;
 
 import com.cobaltkeep.tournament.entity.Tournament;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface TournamentRepository extends JpaRepository<Tournament, Long> {
 
+    // One aggregate over tournaments and their enrollments, no entity or collection is loaded
+    String SUMMARIES = "SELECT new com.cobaltkeep.tournament.repository.TournamentSummary(" +
+            "t.id, t.name, t.startDate, t.endDate, t.locked, COUNT(p)) " +
+            "FROM Tournament t LEFT JOIN t.players p " +
+            "GROUP BY t.id, t.name, t.startDate, t.endDate, t.locked";
+
+    // Query cache: results are dropped whenever tournaments, enrollments or players change
     @Query("SELECT t FROM Tournament t LEFT JOIN FETCH t.players WHERE t.id = :id")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<Tournament> findByIdWithPlayers(@Param("id") Long id);
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Tournament> findAll();
+
+    // Every tournament with its players in one statement
+    @Query("SELECT DISTINCT t FROM Tournament t LEFT JOIN FETCH t.players ORDER BY t.id")
+    List<Tournament> findAllWithPlayers();
+
+    // SELECT ... FOR UPDATE: serializes writers of the same tournament until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Tournament t WHERE t.id = :id")
+    Optional<Tournament> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(value = SUMMARIES, countQuery = "SELECT COUNT(t) FROM Tournament t")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Page<TournamentSummary> findSummaries(Pageable pageable);
+
+    // Read with a cursor, for exports that should not hold every row in memory
+    @Query(SUMMARIES + " ORDER BY t.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<TournamentSummary> streamSummaries();
+
+    // A change of the player set is a new version of the tournament, so updates based on an older one fail.
+    // Skips locked tournaments, and holds the row until commit so the tournament cannot be locked in between.
+    @Modifying
+    @Query("UPDATE Tournament t SET t.version = t.version + 1 WHERE t.id = :id AND t.locked = false")
+    int incrementVersionIfUnlocked(@Param("id") Long id);
+
+    // Set-based enrollment: unknown player ids and existing enrollments are skipped.
+    // The native space limits cache invalidation to enrollments, otherwise Hibernate clears every region.
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tournament_player"))
+    @Query(value = "INSERT INTO tournament_player (tournament_id, player_id) " +
+            "SELECT :tournamentId, p.id FROM players p WHERE p.id IN (:playerIds) AND NOT EXISTS (" +
+            "SELECT 1 FROM tournament_player tp WHERE tp.tournament_id = :tournamentId AND tp.player_id = p.id)",
+            nativeQuery = true)
+    int enrollPlayers(@Param("tournamentId") Long tournamentId, @Param("playerIds") Collection<Long> playerIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tournament_player"))
+    @Query(value = "DELETE FROM tournament_player WHERE tournament_id = :tournamentId AND player_id IN (:playerIds)",
+            nativeQuery = true)
+    int unenrollPlayers(@Param("tournamentId") Long tournamentId, @Param("playerIds") Collection<Long> playerIds);
 }
\ No newline at end of file
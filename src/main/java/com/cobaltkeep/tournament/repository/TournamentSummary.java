@@ -0,0 +1,31 @@
+package com.cobaltkeep.tournament.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Flat view of a tournament with its player count, built by the summary queries in {@link TournamentRepository}
+ */
+public class TournamentSummary {
+    private final Long id;
+    private final String name;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final boolean locked;
+    private final long playerCount;
+
+    public TournamentSummary(Long id, String name, LocalDate startDate, LocalDate endDate, boolean locked, long playerCount) {
+        this.id = id;
+        this.name = name;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.locked = locked;
+        this.playerCount = playerCount;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public boolean isLocked() { return locked; }
+    public long getPlayerCount() { return playerCount; }
+}
@@ -0,0 +1,51 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.repository.MatchRepository;
+import com.cobaltkeep.tournament.repository.TournamentRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@Timed(value = "tournament.service", description = "Service method calls, tagged with class and method")
+@Counted(value = "tournament.service.failures", recordFailuresOnly = true)
+public class BracketService {
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private BracketSnapshotCache bracketSnapshotCache;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BracketService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Get the shared snapshot of a tournament's bracket, loading it on a cache miss.
+     * The snapshot and the entities in it are shared between sessions and must not be modified.
+     */
+    public BracketSnapshot loadSnapshot(Long tournamentId) {
+        return bracketSnapshotCache.get(tournamentId, id -> readOnlyTransaction.execute(status -> loadFromDatabase(id)));
+    }
+
+    /**
+     * Load the tournament and all of its matches once and derive the bracket state from them.
+     * Two statements: the tournament with its players, and every match with its players.
+     */
+    private BracketSnapshot loadFromDatabase(Long tournamentId) {
+        Tournament tournament = tournamentRepository.findByIdWithPlayers(tournamentId)
+                .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
+        return BracketSnapshot.of(tournament, matchRepository.findBracketByTournamentId(tournamentId));
+    }
+}
@@ -0,0 +1,297 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.metrics.StatsComputationEvent;
+import com.cobaltkeep.tournament.repository.PlayerStanding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * View of a bracket: the tournament, all of its matches grouped by bracket type
+ * and round, and the wins and points of every player. Built in one pass from data that was
+ * loaded once, so rendering, sorting and winner detection never go back to the database.
+ * <p>
+ * The collections cannot be modified, but the tournament, matches and players are the detached
+ * entities they were built from. {@link BracketSnapshotCache} shares one snapshot between every
+ * session, so callers must treat them as read-only: changes go through the services, which load
+ * their own instances and invalidate the cached snapshot.
+ */
+public final class BracketSnapshot {
+
+    private static final PlayerStats NO_STATS = new PlayerStats(0, 0);
+
+    private final Tournament tournament;
+    private final List<Match> matches;
+    private final List<List<Match>> mainRounds;
+    private final List<Match> losersMatches;
+    private final Map<String, Match> matchesByKey;
+    private final Map<Long, Match> matchesById;
+    private final Map<Long, PlayerStats> statsByPlayerId;
+    private final Map<Long, Player> participantsById;
+    private volatile List<PlayerStanding> standings;
+
+    private BracketSnapshot(Tournament tournament, List<Match> matches) {
+        this.tournament = tournament;
+        this.matches = List.copyOf(matches);
+
+        List<List<Match>> rounds = new ArrayList<>();
+        List<Match> losers = new ArrayList<>();
+        Map<String, Match> byKey = new HashMap<>();
+        Map<Long, Match> byId = new HashMap<>();
+        Map<Long, Player> participants = new HashMap<>();
+        // Every player's totals are rebuilt from the matches: a score change replaces the whole snapshot,
+        // and one pass over the loaded matches costs less than the query that loaded them
+        Map<Long, int[]> totals = new HashMap<>(); // Key: player id, value: {wins, points}
+
+        for (Match match : this.matches) {
+            if ("losers".equals(match.getBracketType())) {
+                losers.add(match);
+            } else {
+                while (rounds.size() <= match.getRound()) {
+                    rounds.add(new ArrayList<>());
+                }
+                rounds.get(match.getRound()).add(match);
+            }
+            byKey.put(matchKey(match.getBracketType(), match.getRound(), match.getPlayer1().getId(), match.getPlayer2().getId()), match);
+            byId.put(match.getId(), match);
+            participants.putIfAbsent(match.getPlayer1().getId(), match.getPlayer1());
+            participants.putIfAbsent(match.getPlayer2().getId(), match.getPlayer2());
+
+            int[] player1Totals = totals.computeIfAbsent(match.getPlayer1().getId(), id -> new int[2]);
+            int[] player2Totals = totals.computeIfAbsent(match.getPlayer2().getId(), id -> new int[2]);
+            player1Totals[1] += match.getPlayer1Points() != null ? match.getPlayer1Points() : 0;
+            player2Totals[1] += match.getPlayer2Points() != null ? match.getPlayer2Points() : 0;
+            if (match.getWinner() != null) {
+                totals.computeIfAbsent(match.getWinner().getId(), id -> new int[2])[0]++;
+            }
+        }
+
+        Map<Long, PlayerStats> stats = new HashMap<>();
+        totals.forEach((playerId, playerTotals) -> stats.put(playerId, new PlayerStats(playerTotals[0], playerTotals[1])));
+
+        this.mainRounds = rounds.stream().map(Collections::unmodifiableList).toList();
+        this.losersMatches = Collections.unmodifiableList(losers);
+        this.matchesByKey = Collections.unmodifiableMap(byKey);
+        this.matchesById = Collections.unmodifiableMap(byId);
+        this.participantsById = Collections.unmodifiableMap(participants);
+        this.statsByPlayerId = Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Build a snapshot from a tournament and all of its matches
+     */
+    public static BracketSnapshot of(Tournament tournament, List<Match> matches) {
+        return new BracketSnapshot(tournament, matches);
+    }
+
+    public Tournament getTournament() { return tournament; }
+    public List<Match> getMatches() { return matches; }
+    public List<List<Match>> getMainRounds() { return mainRounds; }
+    public List<Match> getLosersMatches() { return losersMatches; }
+
+    /**
+     * Find the match between two players in a main round, or in the losers bracket
+     */
+    public Match findMatch(String bracketType, int round, Player player1, Player player2) {
+        return matchesByKey.get(matchKey(bracketType, round, player1.getId(), player2.getId()));
+    }
+
+    public Match getMatch(Long matchId) {
+        return matchesById.get(matchId);
+    }
+
+    public PlayerStats getStats(Player player) {
+        return statsByPlayerId.getOrDefault(player.getId(), NO_STATS);
+    }
+
+    public int getWins(Player player) { return getStats(player).getWins(); }
+    public int getTotalPoints(Player player) { return getStats(player).getTotalPoints(); }
+
+    /**
+     * Check if all main matches of a round have points for both players
+     */
+    public boolean isRoundCompleted(int round) {
+        if (round < 0 || round >= mainRounds.size()) {
+            return true;
+        }
+        return mainRounds.get(round).stream().allMatch(match ->
+                match.getPlayer1Points() != null && match.getPlayer2Points() != null);
+    }
+
+    /**
+     * Matches, main and losers, that do not have points for both players yet
+     */
+    public long getPendingMatchCount() {
+        return matches.stream().filter(match -> match.getPlayer1Points() == null || match.getPlayer2Points() == null).count();
+    }
+
+    /**
+     * Players of every main round that has matches, in match order: the players of match i are at 2i and 2i + 1
+     */
+    public List<List<Player>> getRoundPlayers() {
+        List<List<Player>> result = new ArrayList<>(mainRounds.size());
+        for (List<Match> roundMatches : mainRounds) {
+            List<Player> round = new ArrayList<>(roundMatches.size() * 2);
+            for (Match match : roundMatches) {
+                round.add(match.getPlayer1());
+                round.add(match.getPlayer2());
+            }
+            if (!round.isEmpty()) {
+                result.add(round);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Players in the losers bracket: everyone who lost a main match, then for every decided
+     * losers match the loser drops out and the winner stays in once
+     */
+    public List<Player> getLosers() {
+        List<Player> losers = new ArrayList<>();
+        for (List<Match> roundMatches : mainRounds) {
+            for (Match match : roundMatches) {
+                if (match.getWinner() != null && !isSamePlayer(match.getWinner(), match.getPlayer1())) {
+                    losers.add(match.getPlayer1());
+                } else if (match.getWinner() != null) {
+                    losers.add(match.getPlayer2());
+                }
+            }
+        }
+
+        for (Match match : losersMatches) {
+            if (match.getWinner() != null) {
+                losers.removeIf(player -> isSamePlayer(player, match.getPlayer1()) || isSamePlayer(player, match.getPlayer2()));
+                losers.add(match.getWinner());
+            }
+        }
+        return losers;
+    }
+
+    /**
+     * Players of the losers bracket by standing, paired like the rounds: the players of match i are at 2i and 2i + 1
+     */
+    public List<Player> getLosersByStanding() {
+        List<Player> sorted = getLosers();
+        sorted.sort(byStanding());
+        return sorted;
+    }
+
+    /**
+     * Check if a pair of players in the losers bracket has no match yet
+     */
+    public boolean hasMissingLosersMatches() {
+        List<Player> losers = getLosersByStanding();
+        for (int i = 0; i + 1 < losers.size(); i += 2) {
+            if (findMatch("losers", 0, losers.get(i), losers.get(i + 1)) == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Orders players by wins (descending), then by points (descending)
+     */
+    public Comparator<Player> byStanding() {
+        return Comparator.comparingInt(this::getWins).reversed()
+                .thenComparing(Comparator.comparingInt(this::getTotalPoints).reversed());
+    }
+
+    /**
+     * Ranked standings of every player with a match, the same ranking as the standings query
+     * in MatchRepository. Computed on first use and shared by everyone reading this snapshot.
+     */
+    public List<PlayerStanding> getStandings() {
+        List<PlayerStanding> result = standings;
+        if (result == null) {
+            StatsComputationEvent event = new StatsComputationEvent();
+            event.start();
+            List<Player> ranked = new ArrayList<>(participantsById.values());
+            ranked.sort(byStanding().thenComparing(Player::getId));
+            List<PlayerStanding> computed = new ArrayList<>(ranked.size());
+            long rank = 0;
+            Player previous = null;
+            for (int i = 0; i < ranked.size(); i++) {
+                Player player = ranked.get(i);
+                if (previous == null || byStanding().compare(previous, player) != 0) {
+                    rank = i + 1;
+                }
+                computed.add(new Standing(player, getStats(player), rank));
+                previous = player;
+            }
+            result = Collections.unmodifiableList(computed);
+            standings = result;
+            event.setTournamentId(tournament.getId());
+            event.setSource("bracket snapshot");
+            event.setMatchCount(matches.size());
+            event.setPlayerCount(computed.size());
+            event.finish();
+        }
+        return result;
+    }
+
+    /**
+     * Every player with a match, in the order of {@link #getStandings()}. Round pairing uses this ranking.
+     */
+    public List<Player> getRankedPlayers() {
+        List<PlayerStanding> ranked = getStandings();
+        List<Player> players = new ArrayList<>(ranked.size());
+        for (PlayerStanding standing : ranked) {
+            players.add(((Standing) standing).player);
+        }
+        return players;
+    }
+
+    private static boolean isSamePlayer(Player player, Player other) {
+        return player != null && other != null && player.getId().equals(other.getId());
+    }
+
+    private static String matchKey(String bracketType, int round, Long player1Id, Long player2Id) {
+        return "losers".equals(bracketType)
+                ? "losers_" + player1Id + "_" + player2Id
+                : round + "_" + player1Id + "_" + player2Id;
+    }
+
+    /**
+     * Wins and points of a player in this snapshot
+     */
+    public static final class PlayerStats {
+        private final int wins;
+        private final int totalPoints;
+
+        public PlayerStats(int wins, int totalPoints) {
+            this.wins = wins;
+            this.totalPoints = totalPoints;
+        }
+
+        public int getWins() { return wins; }
+        public int getTotalPoints() { return totalPoints; }
+    }
+
+    private static final class Standing implements PlayerStanding {
+        private final Player player;
+        private final PlayerStats stats;
+        private final long rank;
+
+        Standing(Player player, PlayerStats stats, long rank) {
+            this.player = player;
+            this.stats = stats;
+            this.rank = rank;
+        }
+
+        @Override public Long getPlayerId() { return player.getId(); }
+        @Override public String getFirstName() { return player.getFirstName(); }
+        @Override public String getLastName() { return player.getLastName(); }
+        @Override public Long getWins() { return (long) stats.getWins(); }
+        @Override public Long getTotalPoints() { return (long) stats.getTotalPoints(); }
+        @Override public Long getStandingRank() { return rank; }
+    }
+}
@@ -0,0 +1,75 @@
+package com.cobaltkeep.tournament.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bracket snapshots shared by every UI instance, keyed by tournament id.
+ * Bounded in size, entries are evicted when unused and invalidated by the service write methods
+ * once their transaction has committed.
+ * <p>
+ * Entries are futures: the first caller loads the snapshot on its own thread and concurrent callers
+ * wait for that future. No cache lock is held while the database is queried, so a load never pins
+ * a virtual thread.
+ */
+@Component
+public class BracketSnapshotCache {
+
+    private final AsyncCache<Long, BracketSnapshot> cache;
+
+    public BracketSnapshotCache(@Value("${tournament.bracket-cache.maximum-size:200}") long maximumSize,
+                                @Value("${tournament.bracket-cache.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .buildAsync();
+    }
+
+    public BracketSnapshot get(Long tournamentId, Function<Long, BracketSnapshot> loader) {
+        CompletableFuture<BracketSnapshot> created = new CompletableFuture<>();
+        CompletableFuture<BracketSnapshot> cached = cache.get(tournamentId, (id, executor) -> created);
+        if (cached == created) {
+            try {
+                created.complete(loader.apply(tournamentId));
+            } catch (RuntimeException | Error e) {
+                // Failed futures are removed from the cache, the next caller loads again
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The snapshot of a tournament if it is loaded, without loading it
+     */
+    public Optional<BracketSnapshot> getIfPresent(Long tournamentId) {
+        CompletableFuture<BracketSnapshot> cached = cache.getIfPresent(tournamentId);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.join());
+    }
+
+    /**
+     * Drop the snapshot of a tournament after the current transaction commits
+     */
+    public void invalidateAfterCommit(Long tournamentId) {
+        TransactionCallbacks.afterCommit(() -> cache.synchronous().invalidate(tournamentId));
+    }
+}
@@ -0,0 +1,36 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Match;
+
+/**
+ * Published on the {@link MatchEventBus} after a change to a tournament's matches has committed
+ */
+public class MatchEvent {
+
+    public enum Type {
+        MATCH_UPDATED,  // Points or winner of a single match changed
+        BRACKET_CHANGED // Matches were created or deleted, or the tournament itself changed
+    }
+
+    private final Type type;
+    private final Long tournamentId;
+    private final Long matchId;
+
+    private MatchEvent(Type type, Long tournamentId, Long matchId) {
+        this.type = type;
+        this.tournamentId = tournamentId;
+        this.matchId = matchId;
+    }
+
+    public static MatchEvent matchUpdated(Match match) {
+        return new MatchEvent(Type.MATCH_UPDATED, match.getTournament().getId(), match.getId());
+    }
+
+    public static MatchEvent bracketChanged(Long tournamentId) {
+        return new MatchEvent(Type.BRACKET_CHANGED, tournamentId, null);
+    }
+
+    public Type getType() { return type; }
+    public Long getTournamentId() { return tournamentId; }
+    public Long getMatchId() { return matchId; }
+}
@@ -0,0 +1,69 @@
+package com.cobaltkeep.tournament.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus that tells live views about committed match changes of the tournament they show
+ */
+@Component
+public class MatchEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchEventBus.class);
+
+    private final Map<Long, Set<Consumer<MatchEvent>>> listenersByTournament = new ConcurrentHashMap<>();
+
+    /**
+     * Listen to the events of one tournament
+     *
+     * @return action that removes the listener again
+     */
+    public Runnable subscribe(Long tournamentId, Consumer<MatchEvent> listener) {
+        listenersByTournament.compute(tournamentId, (id, listeners) -> {
+            Set<Consumer<MatchEvent>> result = listeners != null ? listeners : ConcurrentHashMap.newKeySet();
+            result.add(listener);
+            return result;
+        });
+        return () -> listenersByTournament.computeIfPresent(tournamentId, (id, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    /**
+     * Number of listeners, i.e. open bracket views, per tournament that has any
+     */
+    public Map<Long, Integer> getListenerCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        listenersByTournament.forEach((tournamentId, listeners) -> counts.put(tournamentId, listeners.size()));
+        return counts;
+    }
+
+    /**
+     * Publish an event once the current transaction has committed
+     */
+    public void publishAfterCommit(MatchEvent event) {
+        TransactionCallbacks.afterCommit(() -> publish(event));
+    }
+
+    private void publish(MatchEvent event) {
+        Set<Consumer<MatchEvent>> listeners = listenersByTournament.get(event.getTournamentId());
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<MatchEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                log.warn("Match event listener failed for tournament {}", event.getTournamentId(), e);
+            }
+        }
+    }
+}
@@ -3,49 +3,213 @@ package com.cobaltkeep.tournament.service;
 import com.cobaltkeep.tournament.entity.Match;
 import com.cobaltkeep.tournament.entity.Player;
 import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.metrics.ScoreUpdateEvent;
+import com.cobaltkeep.tournament.metrics.StatsComputationEvent;
 import com.cobaltkeep.tournament.repository.MatchRepository;
+import com.cobaltkeep.tournament.repository.PlayerStanding;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
+@Timed(value = "tournament.service", description = "Service method calls, tagged with class and method")
+@Counted(value = "tournament.service.failures", recordFailuresOnly = true)
 public class MatchService {
 
+    private static final Logger log = LoggerFactory.getLogger(MatchService.class);
+
+    // Attempts of a write that lost a race with a concurrent update of the same match
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
     @Autowired
     private MatchRepository matchRepository;
 
-    @Transactional
-    public Match createMatch(Player player1, Player player2, int round, String bracketType, Tournament tournament) {
-        Match match = new Match(player1, player2, null, round, bracketType, tournament);
-        return matchRepository.save(match);
+    @Autowired
+    private BracketSnapshotCache bracketSnapshotCache;
+
+    @Autowired
+    private MatchEventBus matchEventBus;
+
+    // Looked up on use: the queue writes through this service
+    @Autowired
+    private ObjectProvider<ScoreWriteBehindQueue> scoreWriteBehindQueue;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public MatchService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    /**
+     * Create the matches of a whole round in one transaction: consecutive players are paired,
+     * an odd last player gets no match. The inserts are sent in JDBC batches and viewers get
+     * a single bracket change event for the round.
+     */
     @Transactional
-    public Match updateMatchWinner(Match match, Player winner) {
-        match.setWinner(winner);
-        return matchRepository.save(match);
+    public List<Match> createRound(Tournament tournament, int round, String bracketType, List<Player> players) {
+        List<Match> saved = matchRepository.saveAll(pairPlayers(tournament, round, bracketType, players));
+        bracketSnapshotCache.invalidateAfterCommit(tournament.getId());
+        matchEventBus.publishAfterCommit(MatchEvent.bracketChanged(tournament.getId()));
+        return saved;
     }
 
-    @Transactional
-    public Match updateMatchPoints(Match match, Integer player1Points, Integer player2Points) {
-        match.setPlayer1Points(player1Points);
-        match.setPlayer2Points(player2Points);
-        
-        // Determine winner based on points
-        if (player1Points != null && player2Points != null) {
-            if (player1Points > player2Points) {
+    /**
+     * New, unsaved matches for consecutive players; an odd last player gets no match
+     */
+    static List<Match> pairPlayers(Tournament tournament, int round, String bracketType, List<Player> players) {
+        List<Match> matches = new ArrayList<>(players.size() / 2);
+        for (int i = 0; i + 1 < players.size(); i += 2) {
+            matches.add(new Match(players.get(i), players.get(i + 1), null, round, bracketType, tournament));
+        }
+        return matches;
+    }
+
+    /**
+     * Set the winner of a match. The winner must be one of the two players of the match.
+     */
+    public Match updateMatchWinner(Long matchId, Long winnerId) {
+        return updateMatchWinner(matchId, null, winnerId);
+    }
+
+    /**
+     * Set the winner of a match, unless it changed since the caller read it
+     *
+     * @param expectedVersion version of the match the caller saw, or null to update whatever the current state is
+     * @throws UpdateConflictException if the match has a different version
+     */
+    public Match updateMatchWinner(Long matchId, Long expectedVersion, Long winnerId) {
+        // A queued REST update of this match is older, it is written first instead of after this one
+        scoreWriteBehindQueue.getObject().drain(List.of(matchId));
+        ScoreUpdateEvent event = new ScoreUpdateEvent("winner");
+        return writeWithRetry(event, () -> {
+            Match match = getMatchById(matchId);
+            event.setTournamentId(match.getTournament().getId());
+            event.setMatchCount(1);
+            checkVersion(match, expectedVersion);
+            if (match.getPlayer1().getId().equals(winnerId)) {
                 match.setWinner(match.getPlayer1());
-            } else if (player2Points > player1Points) {
+            } else if (match.getPlayer2().getId().equals(winnerId)) {
                 match.setWinner(match.getPlayer2());
+            } else {
+                throw new IllegalArgumentException("Player " + winnerId + " does not play in match " + matchId);
             }
-            // If points are equal, winner remains null (tie)
-        }
-        
-        return matchRepository.save(match);
+            Match saved = save(match);
+            matchEventBus.publishAfterCommit(MatchEvent.matchUpdated(saved));
+            return saved;
+        });
+    }
+
+    /**
+     * Record the points of a match and derive the winner from them.
+     * The match is loaded by id, so snapshots shared between sessions are never modified.
+     */
+    public Match updateMatchPoints(Long matchId, Integer player1Points, Integer player2Points) {
+        return updateMatchPoints(matchId, null, player1Points, player2Points);
+    }
+
+    /**
+     * Record the points of a match, unless it changed since the caller read it
+     *
+     * @param expectedVersion version of the match the caller saw, or null to update whatever the current state is
+     * @throws UpdateConflictException if the match has a different version
+     */
+    public Match updateMatchPoints(Long matchId, Long expectedVersion, Integer player1Points, Integer player2Points) {
+        scoreWriteBehindQueue.getObject().drain(List.of(matchId));
+        ScoreUpdateEvent event = new ScoreUpdateEvent("points");
+        return writeWithRetry(event, () -> {
+            Match match = getMatchById(matchId);
+            event.setTournamentId(match.getTournament().getId());
+            event.setMatchCount(1);
+            checkVersion(match, expectedVersion);
+            applyPoints(match, player1Points, player2Points);
+            Match saved = save(match);
+            matchEventBus.publishAfterCommit(MatchEvent.matchUpdated(saved));
+            return saved;
+        });
+    }
+
+    /**
+     * Record the points of many matches in one transaction, with the same winner rule as
+     * {@link #updateMatchPoints}. The matches are loaded with one query and the updates are
+     * flushed in JDBC batches. Invalid, unknown or outdated items are reported and do not affect the others.
+     *
+     * @return one result per submission, in the same order
+     */
+    public List<ScoreResult> submitScores(List<ScoreSubmission> submissions) {
+        ScoreUpdateEvent event = new ScoreUpdateEvent("batch");
+        return writeWithRetry(event, () -> {
+            Set<Long> matchIds = new HashSet<>();
+            submissions.stream().map(ScoreSubmission::getMatchId).filter(Objects::nonNull).forEach(matchIds::add);
+            Map<Long, Match> matchesById = new HashMap<>();
+            if (!matchIds.isEmpty()) {
+                matchRepository.findAllWithPlayersByIdIn(matchIds).forEach(match -> matchesById.put(match.getId(), match));
+            }
+
+            // Null entries are filled in after the flush, once the new versions are known
+            List<ScoreResult> results = new ArrayList<>(submissions.size());
+            Map<Long, Match> updated = new HashMap<>();
+            for (ScoreSubmission submission : submissions) {
+                Long matchId = submission.getMatchId();
+                Integer player1Points = submission.getPlayer1Points();
+                Integer player2Points = submission.getPlayer2Points();
+                Match match = matchId != null ? matchesById.get(matchId) : null;
+                if (match == null) {
+                    results.add(ScoreResult.notFound(matchId));
+                } else if (player1Points == null || player2Points == null || player1Points < 0 || player2Points < 0) {
+                    results.add(ScoreResult.invalid(matchId, "Points of both players are required and must not be negative"));
+                } else if (submission.getVersion() != null && !submission.getVersion().equals(match.getVersion())) {
+                    // Versions only change at the flush, so a match sent twice in one batch is checked against the same version
+                    results.add(ScoreResult.conflict(matchId, match.getVersion()));
+                } else {
+                    applyPoints(match, player1Points, player2Points);
+                    updated.put(matchId, match);
+                    results.add(null);
+                }
+            }
+
+            // Managed entities: dirty checking writes them in update batches, flushed now to get the new versions
+            matchRepository.flush();
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) == null) {
+                    Match match = matchesById.get(submissions.get(i).getMatchId());
+                    results.set(i, ScoreResult.updated(match.getId(),
+                            match.getWinner() != null ? match.getWinner().getId() : null, match.getVersion()));
+                }
+            }
+
+            Set<Long> tournamentIds = new HashSet<>();
+            for (Match match : updated.values()) {
+                matchEventBus.publishAfterCommit(MatchEvent.matchUpdated(match));
+                tournamentIds.add(match.getTournament().getId());
+            }
+            tournamentIds.forEach(bracketSnapshotCache::invalidateAfterCommit);
+            event.setMatchCount(updated.size());
+            if (tournamentIds.size() == 1) {
+                event.setTournamentId(tournamentIds.iterator().next());
+            }
+            return results;
+        });
     }
 
     public List<Match> getMatchesByTournamentAndBracketType(Tournament tournament, String bracketType) {
@@ -59,39 +223,29 @@ public class MatchService {
     @Transactional
     public void deleteMatchesByTournament(Tournament tournament) {
         matchRepository.deleteByTournament(tournament);
+        bracketSnapshotCache.invalidateAfterCommit(tournament.getId());
+        matchEventBus.publishAfterCommit(MatchEvent.bracketChanged(tournament.getId()));
+    }
+
+    /**
+     * Get one page of the ranked standings of a tournament, computed by the database
+     */
+    public Page<PlayerStanding> getStandings(Long tournamentId, Pageable pageable) {
+        StatsComputationEvent event = new StatsComputationEvent();
+        event.start();
+        Page<PlayerStanding> standings = matchRepository.findStandings(tournamentId, pageable);
+        event.setTournamentId(tournamentId);
+        event.setSource("standings query");
+        event.setPlayerCount(Math.toIntExact(standings.getTotalElements()));
+        event.finish();
+        return standings;
     }
 
     /**
-     * Calculate player statistics including wins and total points
+     * Get the rank, wins and points of a single player
      */
-    public Map<Player, PlayerStats> calculatePlayerStats(Tournament tournament) {
-        List<Match> allMatches = matchRepository.findByTournament(tournament);
-        
-        return allMatches.stream()
-                .flatMap(match -> List.of(match.getPlayer1(), match.getPlayer2()).stream())
-                .distinct()
-                .collect(Collectors.toMap(
-                        player -> player,
-                        player -> {
-                            int wins = (int) allMatches.stream()
-                                    .filter(m -> m.getWinner() != null && m.getWinner().equals(player))
-                                    .count();
-                            
-                            int totalPoints = allMatches.stream()
-                                    .filter(m -> m.getPlayer1().equals(player) || m.getPlayer2().equals(player))
-                                    .mapToInt(m -> {
-                                        if (m.getPlayer1().equals(player) && m.getPlayer1Points() != null) {
-                                            return m.getPlayer1Points();
-                                        } else if (m.getPlayer2().equals(player) && m.getPlayer2Points() != null) {
-                                            return m.getPlayer2Points();
-                                        }
-                                        return 0;
-                                    })
-                                    .sum();
-                            
-                            return new PlayerStats(wins, totalPoints);
-                        }
-                ));
+    public Optional<PlayerStanding> getStandingOfPlayer(Long tournamentId, Long playerId) {
+        return matchRepository.findStandingOfPlayer(tournamentId, playerId);
     }
 
     /**
@@ -110,19 +264,70 @@ public class MatchService {
                 match.getPlayer1Points() != null && match.getPlayer2Points() != null);
     }
 
+    public Optional<Match> findMatch(Long matchId) {
+        return matchRepository.findById(matchId);
+    }
+
+    private Match getMatchById(Long matchId) {
+        return matchRepository.findById(matchId)
+                .orElseThrow(() -> new IllegalArgumentException("Match not found with ID: " + matchId));
+    }
+
+    /**
+     * Set the points and derive the winner: more points wins, equal points keep the current winner
+     */
+    private static void applyPoints(Match match, Integer player1Points, Integer player2Points) {
+        match.setPlayer1Points(player1Points);
+        match.setPlayer2Points(player2Points);
+
+        // Determine winner based on points
+        if (player1Points != null && player2Points != null) {
+            if (player1Points > player2Points) {
+                match.setWinner(match.getPlayer1());
+            } else if (player2Points > player1Points) {
+                match.setWinner(match.getPlayer2());
+            }
+            // If points are equal, winner remains null (tie)
+        }
+    }
+
     /**
-     * Inner class to hold player statistics
+     * Run a write in its own transaction. If a concurrent transaction updated the same rows first,
+     * the write is repeated on the fresh state; a version the caller expected still fails with a conflict.
      */
-    public static class PlayerStats {
-        private final int wins;
-        private final int totalPoints;
+    private <T> T writeWithRetry(ScoreUpdateEvent event, Supplier<T> write) {
+        event.start();
+        try {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                // Part of the caller's transaction, which cannot be repeated from here
+                event.setAttempts(1);
+                return write.get();
+            }
+            for (int attempt = 1; ; attempt++) {
+                event.setAttempts(attempt);
+                try {
+                    return transactionTemplate.execute(status -> write.get());
+                } catch (OptimisticLockingFailureException e) {
+                    if (attempt == MAX_WRITE_ATTEMPTS) {
+                        throw new UpdateConflictException("The match was changed by someone else, please try again", e);
+                    }
+                    log.debug("Concurrent match update, retrying (attempt {})", attempt + 1);
+                }
+            }
+        } finally {
+            event.finish();
+        }
+    }
 
-        public PlayerStats(int wins, int totalPoints) {
-            this.wins = wins;
-            this.totalPoints = totalPoints;
+    private static void checkVersion(Match match, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(match.getVersion())) {
+            throw new UpdateConflictException("Match " + match.getId() + " was changed by someone else");
         }
+    }
 
-        public int getWins() { return wins; }
-        public int getTotalPoints() { return totalPoints; }
+    private Match save(Match match) {
+        Match saved = matchRepository.save(match);
+        bracketSnapshotCache.invalidateAfterCommit(saved.getTournament().getId());
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.cobaltkeep.tournament.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Progress and outcome of a bulk player import. Updated after every chunk,
+ * so the same object is passed to progress listeners and returned at the end.
+ */
+public class PlayerImportResult {
+
+    // Only the first errors are kept, the rest are counted
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int rowsRead;
+    private int created;
+    private int duplicates;
+    private int enrolled;
+    private int errorCount;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public int getRowsRead() { return rowsRead; }
+    public int getCreated() { return created; }
+    public int getDuplicates() { return duplicates; }
+    public int getEnrolled() { return enrolled; }
+    public int getErrorCount() { return errorCount; }
+    public List<RowError> getErrors() { return Collections.unmodifiableList(errors); }
+
+    void rowRead() { rowsRead++; }
+    void addCreated(int count) { created += count; }
+    void addDuplicates(int count) { duplicates += count; }
+    void addEnrolled(int count) { enrolled += count; }
+
+    void addError(long line, String message) {
+        errorCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,407 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.repository.PlayerName;
+import com.cobaltkeep.tournament.repository.PlayerRepository;
+import com.cobaltkeep.tournament.repository.TournamentRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bulk player import from CSV or JSON. The input is parsed row by row and handled in chunks:
+ * one query finds the players that already exist, the new ones are inserted in a JDBC batch
+ * and, if a tournament is given, everyone in the chunk is enrolled with one set-based insert.
+ * Each chunk is its own transaction, so a failing chunk does not undo the ones before it.
+ * A chunk that runs into a player created concurrently under the same name is repeated, and then
+ * finds that player as a duplicate. Locking the tournament stops the import before the next chunk.
+ */
+@Service
+public class PlayerImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerImportService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    // Bypasses Hibernate, so cached query results are not invalidated. None of them include players
+    // that are not enrolled, and the enrollment goes through the repository.
+    private static final String INSERT_PLAYER = "INSERT INTO players (first_name, last_name) VALUES (?, ?)";
+
+    public enum Format { CSV, JSON }
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerSearchService playerSearchService;
+
+    @Autowired
+    private BracketSnapshotCache bracketSnapshotCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PlayerImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import players, skipping the ones whose first and last name already exist
+     *
+     * @param tournamentId tournament to enroll every imported player in, new or existing, or null
+     * @param progress called after every chunk with the result so far
+     * @throws IllegalStateException if the tournament is locked, also when it is locked during the import;
+     *                               the chunks before are kept
+     */
+    public PlayerImportResult importPlayers(InputStream input, Format format, Long tournamentId,
+                                            Consumer<PlayerImportResult> progress) throws IOException {
+        if (tournamentId != null) {
+            Tournament tournament = tournamentRepository.findById(tournamentId)
+                    .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
+            if (tournament.isLocked()) {
+                throw new IllegalStateException("Tournament is locked, cannot add players");
+            }
+        }
+
+        PlayerImportResult result = new PlayerImportResult();
+        long start = System.nanoTime();
+        try (RowReader reader = format == Format.JSON ? new JsonRowReader(input) : new CsvRowReader(input)) {
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                result.rowRead();
+                if (row.error != null) {
+                    result.addError(row.line, row.error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, tournamentId, result);
+                    progress.accept(result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, tournamentId, result);
+            }
+        }
+        progress.accept(result);
+        log.info("Imported {} rows in {} ms: {} created, {} duplicates, {} enrolled, {} errors", result.getRowsRead(),
+                (System.nanoTime() - start) / 1_000_000, result.getCreated(), result.getDuplicates(),
+                result.getEnrolled(), result.getErrorCount());
+        return result;
+    }
+
+    private void importChunk(List<ImportRow> chunk, Long tournamentId, PlayerImportResult result) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveChunk(chunk, tournamentId, result));
+                return;
+            } catch (DuplicateKeyException e) {
+                // Someone created a player with one of the names after the chunk looked them up
+                if (attempt == MAX_CHUNK_ATTEMPTS) {
+                    chunkFailed(chunk, result, e);
+                    return;
+                }
+                log.debug("Player created concurrently, repeating lines {} to {}", chunk.get(0).line,
+                        chunk.get(chunk.size() - 1).line);
+            } catch (DataAccessException e) {
+                chunkFailed(chunk, result, e);
+                return;
+            }
+        }
+    }
+
+    private static void chunkFailed(List<ImportRow> chunk, PlayerImportResult result, DataAccessException e) {
+        log.warn("Could not import lines {} to {}", chunk.get(0).line, chunk.get(chunk.size() - 1).line, e);
+        for (ImportRow row : chunk) {
+            result.addError(row.line, "Could not be saved: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void saveChunk(List<ImportRow> chunk, Long tournamentId, PlayerImportResult result) {
+        // Raises the tournament version and holds its row, so it cannot be locked while this chunk enrolls
+        if (tournamentId != null && tournamentRepository.incrementVersionIfUnlocked(tournamentId) == 0) {
+            throw new IllegalStateException("Tournament was locked during the import, lines from "
+                    + chunk.get(0).line + " on were not imported");
+        }
+
+        // Key: first and last name, value: player id, null until the player is inserted
+        Map<String, Long> idsByName = new LinkedHashMap<>();
+        int duplicates = 0;
+        for (ImportRow row : chunk) {
+            if (idsByName.containsKey(row.key())) {
+                duplicates++;
+            } else {
+                idsByName.put(row.key(), null);
+            }
+        }
+
+        // One query for the whole chunk; it may return extra first/last combinations, which are ignored
+        List<String> firstNames = chunk.stream().map(row -> row.firstName).distinct().toList();
+        List<String> lastNames = chunk.stream().map(row -> row.lastName).distinct().toList();
+        for (PlayerName existing : playerRepository.findNamesIn(firstNames, lastNames)) {
+            String key = key(existing.getFirstName(), existing.getLastName());
+            if (idsByName.containsKey(key) && idsByName.get(key) == null) {
+                idsByName.put(key, existing.getId());
+                duplicates++;
+            }
+        }
+
+        List<String[]> newPlayers = new ArrayList<>();
+        idsByName.forEach((key, id) -> {
+            if (id == null) {
+                newPlayers.add(key.split("\u0000", 2));
+            }
+        });
+        List<Long> newIds = insertPlayers(newPlayers);
+        for (int i = 0; i < newPlayers.size(); i++) {
+            String[] name = newPlayers.get(i);
+            Long id = newIds.get(i);
+            idsByName.put(key(name[0], name[1]), id);
+            TransactionCallbacks.afterCommit(() -> playerSearchService.add(id, name[0], name[1]));
+        }
+
+        int enrolled = 0;
+        if (tournamentId != null) {
+            enrolled = tournamentRepository.enrollPlayers(tournamentId, idsByName.values());
+            if (enrolled > 0) {
+                bracketSnapshotCache.invalidateAfterCommit(tournamentId);
+            }
+        }
+
+        int created = newPlayers.size();
+        int skipped = duplicates;
+        int enrolledCount = enrolled;
+        TransactionCallbacks.afterCommit(() -> {
+            result.addCreated(created);
+            result.addDuplicates(skipped);
+            result.addEnrolled(enrolledCount);
+        });
+    }
+
+    private List<Long> insertPlayers(List<String[]> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_PLAYER, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, names.get(i)[0]);
+                        ps.setString(2, names.get(i)[1]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return names.size();
+                    }
+                }, keyHolder);
+        // Column name case depends on the driver, so take the only generated value of each row
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private static String key(String firstName, String lastName) {
+        return firstName + "\u0000" + lastName;
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private final String firstName;
+        private final String lastName;
+        private final String error;
+
+        private ImportRow(long line, String firstName, String lastName, String error) {
+            this.line = line;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.error = error;
+        }
+
+        static ImportRow of(long line, String firstName, String lastName) {
+            String first = firstName != null ? firstName.trim() : "";
+            String last = lastName != null ? lastName.trim() : "";
+            if (first.isEmpty() || last.isEmpty()) {
+                return error(line, "First name and last name are required");
+            }
+            return new ImportRow(line, first, last, null);
+        }
+
+        static ImportRow error(long line, String message) {
+            return new ImportRow(line, null, null, message);
+        }
+
+        String key() {
+            return PlayerImportService.key(firstName, lastName);
+        }
+    }
+
+    private interface RowReader extends AutoCloseable {
+        /**
+         * @return the next row, or null at the end of the input
+         */
+        ImportRow next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Reads "firstName,lastName" lines. A header line is optional; when present, its
+     * firstName/first_name and lastName/last_name columns are used and other columns are ignored.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long lineNumber;
+        private int firstNameColumn = 0;
+        private int lastNameColumn = 1;
+
+        CsvRowReader(InputStream input) {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = split(line);
+                if (lineNumber == 1 && readHeader(fields)) {
+                    continue;
+                }
+                if (fields.size() <= Math.max(firstNameColumn, lastNameColumn)) {
+                    return ImportRow.error(lineNumber, "Expected a first name and a last name");
+                }
+                return ImportRow.of(lineNumber, fields.get(firstNameColumn), fields.get(lastNameColumn));
+            }
+            return null;
+        }
+
+        private boolean readHeader(List<String> fields) {
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+            }
+            if (!columns.containsKey("firstname") || !columns.containsKey("lastname")) {
+                return false;
+            }
+            firstNameColumn = columns.get("firstname");
+            lastNameColumn = columns.get("lastname");
+            return true;
+        }
+
+        // Comma separated, fields may be quoted with "" as an escaped quote
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads an array of {"firstName": ..., "lastName": ...} objects one object at a time.
+     * Row numbers are the position of the object in the array, starting at 1.
+     */
+    private final class JsonRowReader implements RowReader {
+        private final JsonParser parser;
+        private long index;
+
+        JsonRowReader(InputStream input) throws IOException {
+            this.parser = objectMapper.getFactory().createParser(input);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of players");
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            index++;
+            JsonNode node = objectMapper.readTree(parser);
+            if (!node.isObject()) {
+                return ImportRow.error(index, "Expected an object with firstName and lastName");
+            }
+            return ImportRow.of(index, node.path("firstName").asText(null), node.path("lastName").asText(null));
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
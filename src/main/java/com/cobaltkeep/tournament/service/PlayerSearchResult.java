@@ -0,0 +1,24 @@
+package com.cobaltkeep.tournament.service;
+
+/**
+ * One hit of {@link PlayerSearchService#search}, higher scores rank first
+ */
+public class PlayerSearchResult {
+    private final Long playerId;
+    private final String firstName;
+    private final String lastName;
+    private final double score;
+
+    public PlayerSearchResult(Long playerId, String firstName, String lastName, double score) {
+        this.playerId = playerId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.score = score;
+    }
+
+    public Long getPlayerId() { return playerId; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getFullName() { return firstName + " " + lastName; }
+    public double getScore() { return score; }
+}
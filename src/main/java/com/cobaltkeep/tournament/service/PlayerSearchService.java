@@ -0,0 +1,402 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.repository.PlayerName;
+import com.cobaltkeep.tournament.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory name index for finding players by prefix or with typos.
+ * Loaded at startup, or by the first search if that comes earlier, and kept in sync when players
+ * are created, renamed or deleted on this node.
+ * <p>
+ * Prefix lookups use sorted maps of name tokens. Typo tolerance uses a trigram index,
+ * scored like Postgres pg_trgm similarity: shared trigrams / trigrams in either name.
+ * Only the best hits up to the limit are kept while scanning, a short prefix matching most
+ * of the index is not sorted as a whole.
+ */
+@Service
+public class PlayerSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerSearchService.class);
+
+    // Minimum trigram similarity for a fuzzy hit
+    private static final double SIMILARITY_THRESHOLD = 0.3;
+    private static final double EXACT_SCORE = 3.0;
+    private static final double PREFIX_SCORE = 2.0;
+    private static final Comparator<Candidate> BEST_FIRST =
+            Comparator.comparingDouble((Candidate candidate) -> candidate.score).reversed()
+                    .thenComparing(candidate -> candidate.player.last)
+                    .thenComparing(candidate -> candidate.player.first)
+                    .thenComparing(candidate -> candidate.id);
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private final Map<Long, IndexedPlayer> players = new ConcurrentHashMap<>();
+    // Key: normalized first name or last name
+    private final NavigableMap<String, Set<Long>> firstNames = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<Long>> lastNames = new ConcurrentSkipListMap<>();
+    // Key: normalized full name in both orders, only needed when the query has a space
+    private final NavigableMap<String, Set<Long>> fullNames = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> trigrams = new ConcurrentHashMap<>();
+
+    // Serializes changes to the index. Searches read the concurrent maps without it.
+    // A ReentrantLock rather than synchronized, so virtual threads waiting for it unmount from their carrier.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Players added, renamed or removed before the initial load was applied: the load must not overwrite them
+    private final Set<Long> changedBeforeLoad = new HashSet<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        loadIndex(() -> playerRepository.findAllNames());
+    }
+
+    /**
+     * The names are read without holding the lock, only applying them to the index takes it
+     */
+    void loadIndex(Supplier<List<PlayerName>> names) {
+        if (loaded) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<PlayerName> loadedNames = names.get();
+        writeLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            loadedNames.stream()
+                    .filter(name -> !changedBeforeLoad.contains(name.getId()))
+                    .forEach(name -> index(name.getId(), name.getFirstName(), name.getLastName()));
+            changedBeforeLoad.clear();
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Indexed {} player names in {} ms", players.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Add a newly created player, called once the player has been committed
+     */
+    public void add(Player player) {
+        add(player.getId(), player.getFirstName(), player.getLastName());
+    }
+
+    /**
+     * Add a player that was inserted without loading the entity, e.g. by the bulk import
+     */
+    public void add(Long id, String firstName, String lastName) {
+        writeLock.lock();
+        try {
+            changed(id);
+            index(id, firstName, lastName);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replace the indexed name of a player, called once the change has been committed
+     */
+    public void update(Long id, String firstName, String lastName) {
+        writeLock.lock();
+        try {
+            changed(id);
+            unindex(id);
+            index(id, firstName, lastName);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Drop a deleted player, called once the delete has been committed
+     */
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            changed(id);
+            unindex(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void changed(Long id) {
+        if (!loaded) {
+            changedBeforeLoad.add(id);
+        }
+    }
+
+    /**
+     * Find players by name. Exact matches rank first, then name prefixes, then similar names.
+     * Equal scores rank by last name and first name, ignoring case and accents.
+     *
+     * @param query part of a first name, last name or full name, typos allowed
+     * @param limit maximum number of results
+     */
+    public List<PlayerSearchResult> search(String query, int limit) {
+        return search(query, limit, Set.of());
+    }
+
+    /**
+     * Find players by name like {@link #search(String, int)}, leaving out some players.
+     * They are skipped while scanning, so they do not take up any of the limit.
+     *
+     * @param excludedIds players not to return, e.g. the ones already enrolled in a tournament
+     */
+    public List<PlayerSearchResult> search(String query, int limit, Set<Long> excludedIds) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (!loaded) {
+            loadIndex();
+        }
+
+        boolean fullName = normalized.indexOf(' ') >= 0;
+        TopHits best = new TopHits(limit, excludedIds);
+        Set<Long> exact = new HashSet<>(lastNames.getOrDefault(normalized, Set.of()));
+        exact.addAll(firstNames.getOrDefault(normalized, Set.of()));
+        if (fullName) {
+            exact.addAll(fullNames.getOrDefault(normalized, Set.of()));
+        }
+        exact.forEach(id -> best.offer(id, EXACT_SCORE));
+        addLastNamePrefixHits(normalized, exact, best);
+        addPrefixHits(firstNames, normalized, exact, best);
+        // A query without a space is a prefix of a full name only if it is one of the first or last name
+        if (fullName) {
+            addPrefixHits(fullNames, normalized, exact, best);
+        }
+
+        // Similar names score at most 1, below any exact or prefix hit, so they only matter if those are too few
+        if (best.size() < limit) {
+            addSimilarNames(normalized, best);
+        }
+        return best.ranked();
+    }
+
+    private void addLastNamePrefixHits(String prefix, Set<Long> exact, TopHits best) {
+        for (Map.Entry<String, Set<Long>> entry : lastNames.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            // Prefix hits rank by last name and the last names come in order: once the results are full
+            // and the worst of them has a smaller last name, no later one gets in
+            if (best.excludesPrefixHitsAfter(entry.getKey())) {
+                return;
+            }
+            for (Long id : entry.getValue()) {
+                if (!exact.contains(id)) {
+                    best.offer(id, PREFIX_SCORE);
+                }
+            }
+        }
+    }
+
+    private void addPrefixHits(NavigableMap<String, Set<Long>> tokens, String prefix, Set<Long> exact, TopHits best) {
+        for (Set<Long> ids : tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (Long id : ids) {
+                if (!exact.contains(id)) {
+                    best.offer(id, PREFIX_SCORE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Count the trigrams each candidate shares with the query, keep the ones similar enough.
+     * Only called while every exact and prefix hit fits in the results, none of them was dropped.
+     */
+    private void addSimilarNames(String normalized, TopHits best) {
+        Set<String> queryTrigrams = trigramsOf(normalized);
+        Map<Long, int[]> shared = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            for (Long id : trigrams.getOrDefault(trigram, Set.of())) {
+                shared.computeIfAbsent(id, key -> new int[1])[0]++;
+            }
+        }
+        shared.forEach((id, count) -> {
+            IndexedPlayer player = players.get(id);
+            if (player == null || best.contains(id)) {
+                return;
+            }
+            double similarity = (double) count[0] / (queryTrigrams.size() + player.trigramCount - count[0]);
+            if (similarity >= SIMILARITY_THRESHOLD) {
+                best.offer(id, similarity);
+            }
+        });
+    }
+
+    private void index(Long id, String firstName, String lastName) {
+        String first = normalize(firstName);
+        String last = normalize(lastName);
+        Set<String> nameTrigrams = trigramsOf(first + " " + last);
+        if (players.putIfAbsent(id, new IndexedPlayer(firstName, lastName, first, last, nameTrigrams.size())) != null) {
+            return;
+        }
+        firstNames.computeIfAbsent(first, key -> ConcurrentHashMap.newKeySet()).add(id);
+        lastNames.computeIfAbsent(last, key -> ConcurrentHashMap.newKeySet()).add(id);
+        for (String token : List.of(first + " " + last, last + " " + first)) {
+            fullNames.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        for (String trigram : nameTrigrams) {
+            trigrams.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void unindex(Long id) {
+        IndexedPlayer player = players.remove(id);
+        if (player == null) {
+            return;
+        }
+        String first = player.first;
+        String last = player.last;
+        removeFrom(firstNames, first, id);
+        removeFrom(lastNames, last, id);
+        for (String token : List.of(first + " " + last, last + " " + first)) {
+            removeFrom(fullNames, token, id);
+        }
+        for (String trigram : trigramsOf(first + " " + last)) {
+            removeFrom(trigrams, trigram, id);
+        }
+    }
+
+    private static void removeFrom(Map<String, Set<Long>> index, String key, Long id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Lower case, accents removed, single spaces
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String withoutAccents = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutAccents.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Trigrams of every word, padded like pg_trgm: two spaces in front, one at the end
+     */
+    static Set<String> trigramsOf(String normalized) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    private record Candidate(Long id, double score, IndexedPlayer player) {}
+
+    /**
+     * The best hits seen so far that are not excluded, at most limit of them, each player once.
+     * A hit that is not better than the worst kept one is dropped without further work.
+     */
+    private final class TopHits {
+        private final int limit;
+        private final Set<Long> excludedIds;
+        private final PriorityQueue<Candidate> worstFirst;
+        private final Set<Long> ids = new HashSet<>();
+
+        TopHits(int limit, Set<Long> excludedIds) {
+            this.limit = limit;
+            this.excludedIds = excludedIds;
+            this.worstFirst = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        }
+
+        void offer(Long id, double score) {
+            if (excludedIds.contains(id)) {
+                return;
+            }
+            IndexedPlayer player = players.get(id);
+            if (player == null) {
+                return;
+            }
+            Candidate candidate = new Candidate(id, score, player);
+            if (worstFirst.size() == limit && BEST_FIRST.compare(candidate, worstFirst.peek()) >= 0) {
+                return;
+            }
+            // The same player can be a hit on the first and the last name, with the same score
+            if (!ids.add(id)) {
+                return;
+            }
+            worstFirst.add(candidate);
+            if (worstFirst.size() > limit) {
+                ids.remove(worstFirst.poll().id);
+            }
+        }
+
+        boolean excludesPrefixHitsAfter(String last) {
+            Candidate worst = worstFirst.peek();
+            return worstFirst.size() == limit
+                    && (worst.score > PREFIX_SCORE || (worst.score == PREFIX_SCORE && worst.player.last.compareTo(last) < 0));
+        }
+
+        boolean contains(Long id) {
+            return ids.contains(id);
+        }
+
+        int size() {
+            return worstFirst.size();
+        }
+
+        List<PlayerSearchResult> ranked() {
+            List<Candidate> ranked = new ArrayList<>(worstFirst);
+            ranked.sort(BEST_FIRST);
+            return ranked.stream()
+                    .map(candidate -> new PlayerSearchResult(candidate.id, candidate.player.firstName,
+                            candidate.player.lastName, candidate.score))
+                    .toList();
+        }
+    }
+
+    private static class IndexedPlayer {
+        private final String firstName;
+        private final String lastName;
+        // Normalized, for ranking and to find the tokens again
+        private final String first;
+        private final String last;
+        private final int trigramCount;
+
+        IndexedPlayer(String firstName, String lastName, String first, String last, int trigramCount) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.first = first;
+            this.last = last;
+            this.trigramCount = trigramCount;
+        }
+    }
+}
@@ -4,29 +4,112 @@ import com.cobaltkeep.tournament.entity.Player;
 import com.cobaltkeep.tournament.entity.Tournament;
 import com.cobaltkeep.tournament.repository.PlayerRepository;
 import com.cobaltkeep.tournament.repository.TournamentRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "tournament.service", description = "Service method calls, tagged with class and method")
+@Counted(value = "tournament.service.failures", recordFailuresOnly = true)
 public class PlayerService {
 
+    // Search hits sorted when the available players are filtered by name and the page asks for an order
+    private static final int MAX_SORTED_SEARCH_RESULTS = 200;
+
     private final PlayerRepository playerRepository;
     private final TournamentRepository tournamentRepository;
+    private final BracketSnapshotCache bracketSnapshotCache;
+    private final PlayerSearchService playerSearchService;
 
     // Constructor injection (assuming repositories are autowired)
-    public PlayerService(PlayerRepository playerRepository, TournamentRepository tournamentRepository) {
+    public PlayerService(PlayerRepository playerRepository, TournamentRepository tournamentRepository,
+                         BracketSnapshotCache bracketSnapshotCache, PlayerSearchService playerSearchService) {
         this.playerRepository = playerRepository;
         this.tournamentRepository = tournamentRepository;
+        this.bracketSnapshotCache = bracketSnapshotCache;
+        this.playerSearchService = playerSearchService;
     }
 
     public List<Player> getAllPlayers() {
         return playerRepository.findAll();
     }
 
-    public List<Player> getAvailablePlayers(Long tournamentId) {
-        return playerRepository.findAvailablePlayers(tournamentId);
+    /**
+     * Get one page of the players not enrolled in a tournament.
+     * With a name filter the players come from the search index, best matches first. If the page is sorted,
+     * the best 200 matches are shown in that order instead.
+     */
+    public List<Player> getAvailablePlayers(Long tournamentId, String nameFilter, Pageable pageable) {
+        if (nameFilter != null && !nameFilter.isBlank()) {
+            return searchAvailablePlayers(tournamentId, nameFilter, pageable);
+        }
+        if (pageable.getSort().isUnsorted()) {
+            // Stable order, otherwise pages may overlap
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("lastName", "firstName", "id"));
+        }
+        return playerRepository.findAvailablePlayers(tournamentId, pageable).getContent();
+    }
+
+    /**
+     * Find players by name prefix or with typos, best matches first
+     */
+    public List<PlayerSearchResult> searchPlayers(String query, int limit) {
+        return playerSearchService.search(query, limit);
+    }
+
+    private List<Player> searchAvailablePlayers(Long tournamentId, String nameFilter, Pageable pageable) {
+        Comparator<Player> order = comparatorOf(pageable.getSort());
+        // Enrolled players are skipped by the search itself, so they never push available ones out of the hits
+        int limit = order == null ? Math.toIntExact(pageable.getOffset() + pageable.getPageSize()) : MAX_SORTED_SEARCH_RESULTS;
+        List<PlayerSearchResult> hits = playerSearchService.search(nameFilter, limit,
+                playerRepository.findEnrolledPlayerIds(tournamentId));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        // Checked again, in case a player was enrolled meanwhile
+        Map<Long, Player> available = new HashMap<>();
+        playerRepository.findAvailablePlayersByIds(tournamentId, hits.stream().map(PlayerSearchResult::getPlayerId).toList())
+                .forEach(player -> available.put(player.getId(), player));
+        Stream<Player> players = hits.stream()
+                .map(hit -> available.get(hit.getPlayerId()))
+                .filter(Objects::nonNull);
+        if (order != null) {
+            players = players.sorted(order);
+        }
+        return players.skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    /**
+     * The order of a sorted page of search hits, null if unsorted
+     */
+    private static Comparator<Player> comparatorOf(Sort sort) {
+        Comparator<Player> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Player> byProperty = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(Player::getId);
+                case "firstName" -> Comparator.comparing(Player::getFirstName, String.CASE_INSENSITIVE_ORDER);
+                case "lastName" -> Comparator.comparing(Player::getLastName, String.CASE_INSENSITIVE_ORDER);
+                default -> throw new IllegalArgumentException("Cannot sort players by " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                byProperty = byProperty.reversed();
+            }
+            comparator = comparator == null ? byProperty : comparator.thenComparing(byProperty);
+        }
+        return comparator == null ? null : comparator.thenComparing(Player::getId);
     }
 
     @Transactional
@@ -38,6 +121,7 @@ public class PlayerService {
 
         // Save the player
         Player savedPlayer = playerRepository.save(player);
+        TransactionCallbacks.afterCommit(() -> playerSearchService.add(savedPlayer));
 
         // Link to tournament if tournamentId is provided
         if (tournamentId != null) {
@@ -49,11 +133,47 @@ public class PlayerService {
             tournament.addPlayer(savedPlayer);
             savedPlayer.addTournament(tournament);
             tournamentRepository.save(tournament);
+            bracketSnapshotCache.invalidateAfterCommit(tournamentId);
         }
 
         return savedPlayer;
     }
 
+    /**
+     * Change the name of a player. The search index and the brackets showing the player see it once committed.
+     */
+    @Transactional
+    public Player renamePlayer(Long playerId, String firstName, String lastName) {
+        Player player = playerRepository.findById(playerId)
+                .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
+        playerRepository.findByFirstNameAndLastName(firstName, lastName)
+                .filter(other -> !other.getId().equals(playerId))
+                .ifPresent(other -> {
+                    throw new IllegalArgumentException("Player with name " + firstName + " " + lastName + " already exists");
+                });
+
+        player.setFirstName(firstName);
+        player.setLastName(lastName);
+        TransactionCallbacks.afterCommit(() -> playerSearchService.update(playerId, firstName, lastName));
+        player.getTournaments().forEach(tournament -> bracketSnapshotCache.invalidateAfterCommit(tournament.getId()));
+        return player;
+    }
+
+    /**
+     * Delete a player that is not enrolled in any tournament
+     */
+    @Transactional
+    public void deletePlayer(Long playerId) {
+        Player player = playerRepository.findById(playerId)
+                .orElseThrow(() -> new IllegalArgumentException("Player not found with ID: " + playerId));
+        if (!player.getTournaments().isEmpty()) {
+            throw new IllegalStateException("Player is enrolled in a tournament, cannot delete");
+        }
+
+        playerRepository.delete(player);
+        TransactionCallbacks.afterCommit(() -> playerSearchService.remove(playerId));
+    }
+
     @Transactional
     public void addPlayerToTournament(Long playerId, Long tournamentId) {
         // Fetch the player by ID
@@ -73,6 +193,7 @@ public class PlayerService {
             tournament.addPlayer(player);
             player.addTournament(tournament);
             tournamentRepository.save(tournament);
+            bracketSnapshotCache.invalidateAfterCommit(tournamentId);
         }
     }
 
@@ -90,5 +211,6 @@ public class PlayerService {
         tournament.getPlayers().remove(player);
         player.getTournaments().remove(tournament);
         tournamentRepository.save(tournament);
+        bracketSnapshotCache.invalidateAfterCommit(tournamentId);
     }
 }
\ No newline at end of file
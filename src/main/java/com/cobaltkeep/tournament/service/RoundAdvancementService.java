@@ -0,0 +1,206 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.metrics.RoundAdvancementEvent;
+import com.cobaltkeep.tournament.repository.MatchRepository;
+import com.cobaltkeep.tournament.repository.TournamentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates the rounds of a tournament, one caller at a time per tournament. Creating a round that
+ * already exists returns the existing matches, so double clicks, several admins and several
+ * application nodes cannot create a round twice. Different tournaments never wait for each other.
+ * The matches of the losers bracket are created the same way, and a reset waits for them too.
+ */
+@Service
+public class RoundAdvancementService {
+
+    // First key of the two-key advisory lock, keeps these locks apart from other advisory lock users
+    private static final int ROUND_LOCK_NAMESPACE = 0x524f554e; // "ROUN"
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Pair the players of a tournament at random for the first round, unless it already exists
+     *
+     * @return the matches of the first round
+     */
+    @Transactional
+    public List<Match> createFirstRound(Long tournamentId) {
+        RoundAdvancementEvent event = new RoundAdvancementEvent();
+        event.setTournamentId(tournamentId);
+        event.start();
+        try {
+            lockTournament(tournamentId);
+            List<List<Match>> mainRounds = mainRounds(matchRepository.findBracketByTournamentId(tournamentId));
+            if (!mainRounds.isEmpty()) {
+                return recorded(event, 0, mainRounds.get(0), false);
+            }
+
+            Tournament tournament = tournamentRepository.findByIdWithPlayers(tournamentId)
+                    .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
+            List<Player> randomizedPlayers = new ArrayList<>(tournament.getPlayers());
+            Collections.shuffle(randomizedPlayers);
+            return recorded(event, 0, matchService.createRound(tournament, 0, "main", randomizedPlayers), true);
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Create the round after the given one, pairing players by their standing, unless it already exists
+     *
+     * @param currentRound the round the caller has completed, starting at 0
+     * @return the matches of the next round, or an empty list if fewer than three players remain
+     * @throws IllegalStateException if a match of the current round has no points yet
+     */
+    @Transactional
+    public List<Match> advance(Long tournamentId, int currentRound) {
+        RoundAdvancementEvent event = new RoundAdvancementEvent();
+        event.setTournamentId(tournamentId);
+        event.start();
+        try {
+            lockTournament(tournamentId);
+            List<Match> matches = matchRepository.findBracketByTournamentId(tournamentId);
+            List<List<Match>> mainRounds = mainRounds(matches);
+            if (currentRound < 0 || currentRound >= mainRounds.size()) {
+                throw new IllegalArgumentException("Round " + (currentRound + 1) + " does not exist");
+            }
+            if (currentRound + 1 < mainRounds.size()) {
+                // Someone else advanced first
+                return recorded(event, currentRound + 1, mainRounds.get(currentRound + 1), false);
+            }
+            boolean completed = mainRounds.get(currentRound).stream().allMatch(match ->
+                    match.getPlayer1Points() != null && match.getPlayer2Points() != null);
+            if (!completed) {
+                throw new IllegalStateException("All matches in the current round must be completed first");
+            }
+
+            // Players ranked by wins (descending), then by points (descending), from the matches read under the lock
+            Tournament tournament = matches.get(0).getTournament();
+            List<Player> sortedPlayers = BracketSnapshot.of(tournament, matches).getRankedPlayers();
+            if (sortedPlayers.size() <= 2) {
+                return recorded(event, currentRound + 1, List.of(), false);
+            }
+            return recorded(event, currentRound + 1,
+                    matchService.createRound(tournament, currentRound + 1, "main", sortedPlayers), true);
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Create the losers bracket matches that are missing for the current standings. The pairs are
+     * worked out from the matches read under the tournament lock, so concurrent callers create each match once.
+     *
+     * @return the created matches, empty if every pair already has its match
+     */
+    @Transactional
+    public List<Match> createLosersMatches(Long tournamentId) {
+        lockTournament(tournamentId);
+        List<Match> matches = matchRepository.findBracketByTournamentId(tournamentId);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Tournament tournament = matches.get(0).getTournament();
+        BracketSnapshot bracket = BracketSnapshot.of(tournament, matches);
+        List<Player> losers = bracket.getLosersByStanding();
+        List<Player> missingPairs = new ArrayList<>();
+        for (int i = 0; i + 1 < losers.size(); i += 2) {
+            if (bracket.findMatch("losers", 0, losers.get(i), losers.get(i + 1)) == null) {
+                missingPairs.add(losers.get(i));
+                missingPairs.add(losers.get(i + 1));
+            }
+        }
+        if (missingPairs.isEmpty()) {
+            return List.of();
+        }
+        return matchService.createRound(tournament, 0, "losers", missingPairs);
+    }
+
+    /**
+     * Delete every match of a tournament and unlock it, so the bracket can be created again.
+     * A round being created at the same time is either complete before the reset or created after it.
+     */
+    @Transactional
+    public void resetBracket(Long tournamentId) {
+        lockTournament(tournamentId);
+        Tournament tournament = tournamentRepository.findById(tournamentId)
+                .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
+        matchService.deleteMatchesByTournament(tournament);
+        tournamentService.unlockTournament(tournament);
+    }
+
+    private static List<Match> recorded(RoundAdvancementEvent event, int round, List<Match> matches, boolean created) {
+        event.setRound(round);
+        event.setMatchCount(matches.size());
+        event.setCreated(created);
+        return matches;
+    }
+
+    /**
+     * Hold a lock for the tournament until the transaction ends. On PostgreSQL this is an advisory
+     * lock on the tournament id, elsewhere the tournament row is locked for update.
+     */
+    private void lockTournament(Long tournamentId) {
+        if (isPostgres()) {
+            // Two ids that collide on this key only wait for each other, the result stays correct
+            int key = (int) (tournamentId ^ (tournamentId >>> 32));
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", (ResultSetExtractor<Void>) rs -> null,
+                    ROUND_LOCK_NAMESPACE, key);
+        } else {
+            tournamentRepository.findByIdForUpdate(tournamentId)
+                    .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
+        }
+    }
+
+    private static List<List<Match>> mainRounds(List<Match> matches) {
+        List<List<Match>> rounds = new ArrayList<>();
+        for (Match match : matches) {
+            if (!"losers".equals(match.getBracketType())) {
+                while (rounds.size() <= match.getRound()) {
+                    rounds.add(new ArrayList<>());
+                }
+                rounds.get(match.getRound()).add(match);
+            }
+        }
+        return rounds;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package com.cobaltkeep.tournament.service;
+
+/**
+ * Outcome of one {@link ScoreSubmission}, in the order the submissions were sent
+ */
+public class ScoreResult {
+
+    public enum Status { UPDATED, NOT_FOUND, INVALID, CONFLICT, QUEUED }
+
+    private final Long matchId;
+    private final Status status;
+    private final Long winnerId;
+    private final Long version;
+    private final String message;
+
+    private ScoreResult(Long matchId, Status status, Long winnerId, Long version, String message) {
+        this.matchId = matchId;
+        this.status = status;
+        this.winnerId = winnerId;
+        this.version = version;
+        this.message = message;
+    }
+
+    static ScoreResult updated(Long matchId, Long winnerId, Long version) {
+        return new ScoreResult(matchId, Status.UPDATED, winnerId, version, null);
+    }
+
+    static ScoreResult notFound(Long matchId) {
+        return new ScoreResult(matchId, Status.NOT_FOUND, null, null, "Match not found");
+    }
+
+    static ScoreResult invalid(Long matchId, String message) {
+        return new ScoreResult(matchId, Status.INVALID, null, null, message);
+    }
+
+    static ScoreResult queued(Long matchId) {
+        return new ScoreResult(matchId, Status.QUEUED, null, null, "Accepted, not written yet");
+    }
+
+    static ScoreResult conflict(Long matchId, Long currentVersion) {
+        return new ScoreResult(matchId, Status.CONFLICT, null, currentVersion, "Match was changed since version was read");
+    }
+
+    public Long getMatchId() { return matchId; }
+    public Status getStatus() { return status; }
+    public Long getWinnerId() { return winnerId; }
+
+    /**
+     * Version of the match after the update, or its current version for a conflict
+     */
+    public Long getVersion() { return version; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,29 @@
+package com.cobaltkeep.tournament.service;
+
+/**
+ * Points of one match as submitted by a referee
+ */
+public class ScoreSubmission {
+    private Long matchId;
+    private Integer player1Points;
+    private Integer player2Points;
+    // Optional: the version of the match the referee saw, the submission is rejected if the match changed since
+    private Long version;
+
+    public ScoreSubmission() {}
+
+    public ScoreSubmission(Long matchId, Integer player1Points, Integer player2Points) {
+        this.matchId = matchId;
+        this.player1Points = player1Points;
+        this.player2Points = player2Points;
+    }
+
+    public Long getMatchId() { return matchId; }
+    public void setMatchId(Long matchId) { this.matchId = matchId; }
+    public Integer getPlayer1Points() { return player1Points; }
+    public void setPlayer1Points(Integer player1Points) { this.player1Points = player1Points; }
+    public Integer getPlayer2Points() { return player2Points; }
+    public void setPlayer2Points(Integer player2Points) { this.player2Points = player2Points; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
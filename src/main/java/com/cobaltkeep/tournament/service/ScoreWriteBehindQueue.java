@@ -0,0 +1,273 @@
+package com.cobaltkeep.tournament.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind path for submitted scores. Updates wait in a bounded in-memory map keyed by
+ * match id, so repeated updates of the same match are coalesced and only the latest is written.
+ * A scheduled job writes them with {@link MatchService#submitScores} in batches.
+ * <p>
+ * With durability BUFFERED a submission is acknowledged once queued, and a crash loses at most the
+ * updates of one flush interval. With FLUSHED the caller waits until the batch holding its update
+ * has committed, which still saves a transaction per update.
+ * <p>
+ * Before a match is written directly (versioned or invalid items, the bracket view through
+ * {@link MatchService}) its queued update is written by {@link #drain}, so an older queued value is
+ * never flushed over a newer direct write. Only GET /api/matches/{id}/score shows queued updates;
+ * the bracket, the standings and the live views show an update once it has been flushed.
+ */
+@Component
+public class ScoreWriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreWriteBehindQueue.class);
+
+    public enum Durability { BUFFERED, FLUSHED }
+
+    private final MatchService matchService;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final Durability durability;
+    private final Duration flushTimeout;
+    private final Map<Long, PendingScore> pending = new ConcurrentHashMap<>(); // Key: match id
+    // Held while queued updates are taken from the map and written, so a drain never overlaps a flush
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public ScoreWriteBehindQueue(MatchService matchService,
+                                 @Value("${tournament.scores.write-behind.enabled:false}") boolean enabled,
+                                 @Value("${tournament.scores.write-behind.capacity:10000}") int capacity,
+                                 @Value("${tournament.scores.write-behind.batch-size:500}") int batchSize,
+                                 @Value("${tournament.scores.write-behind.durability:FLUSHED}") Durability durability,
+                                 @Value("${tournament.scores.write-behind.flush-timeout:10s}") Duration flushTimeout) {
+        this.matchService = matchService;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.durability = durability;
+        this.flushTimeout = flushTimeout;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Number of matches with an update that has not been written yet
+     */
+    public int size() { return pending.size(); }
+
+    /**
+     * The latest queued update of a match, if it has not been written yet
+     */
+    public Optional<ScoreSubmission> getPending(Long matchId) {
+        PendingScore score = pending.get(matchId);
+        return score != null ? Optional.of(score.submission) : Optional.empty();
+    }
+
+    /**
+     * Queue a batch of scores. Items with a version, and everything once the queue is full,
+     * are written right away so their conflicts and errors can be reported.
+     *
+     * @return one result per submission, in the same order; QUEUED for items not written yet
+     */
+    public List<ScoreResult> submit(List<ScoreSubmission> submissions) {
+        List<ScoreResult> results = new ArrayList<>(submissions.size());
+        List<CompletableFuture<ScoreResult>> futures = new ArrayList<>(submissions.size());
+        List<ScoreSubmission> direct = new ArrayList<>();
+        List<Integer> directPositions = new ArrayList<>();
+        Set<Long> directMatchIds = new HashSet<>();
+        for (ScoreSubmission submission : submissions) {
+            // Once a match is written directly, its later items in the batch follow it, so they stay in order
+            boolean queueable = canQueue(submission) && !directMatchIds.contains(submission.getMatchId());
+            CompletableFuture<ScoreResult> future = queueable ? offer(submission) : null;
+            if (future == null) {
+                directPositions.add(results.size());
+                direct.add(submission);
+                directMatchIds.add(submission.getMatchId());
+            }
+            results.add(ScoreResult.queued(submission.getMatchId()));
+            futures.add(future);
+        }
+
+        if (!direct.isEmpty()) {
+            drain(directMatchIds);
+            List<ScoreResult> directResults = matchService.submitScores(direct);
+            for (int i = 0; i < direct.size(); i++) {
+                results.set(directPositions.get(i), directResults.get(i));
+            }
+        }
+        if (durability == Durability.FLUSHED) {
+            awaitFlush(futures, results);
+        }
+        return results;
+    }
+
+    // Anything that could be rejected is written right away, so the caller gets the reason
+    private static boolean canQueue(ScoreSubmission submission) {
+        return submission.getMatchId() != null && submission.getVersion() == null
+                && submission.getPlayer1Points() != null && submission.getPlayer2Points() != null
+                && submission.getPlayer1Points() >= 0 && submission.getPlayer2Points() >= 0;
+    }
+
+    /**
+     * Write the queued updates of these matches now, before the matches are written directly.
+     * Otherwise a later flush would overwrite the direct write with the older queued value.
+     * Waits for a flush that is writing one of them.
+     *
+     * @throws RuntimeException if the queued updates could not be written; they stay queued
+     */
+    public void drain(Collection<Long> matchIds) {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            List<PendingScore> batch = new ArrayList<>();
+            for (Long matchId : matchIds) {
+                PendingScore score = matchId != null ? pending.remove(matchId) : null;
+                if (score != null) {
+                    batch.add(score);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return completed once the update is written, or null if the queue is full
+     */
+    private CompletableFuture<ScoreResult> offer(ScoreSubmission submission) {
+        Long matchId = submission.getMatchId();
+        if (pending.size() >= capacity && !pending.containsKey(matchId)) {
+            return null;
+        }
+        PendingScore score = new PendingScore(submission);
+        PendingScore replaced = pending.put(matchId, score);
+        if (replaced != null) {
+            // Coalesced: whoever waits for the older update is answered when the newer one is written
+            score.chain(replaced);
+        }
+        return score.future;
+    }
+
+    private void awaitFlush(List<CompletableFuture<ScoreResult>> futures, List<ScoreResult> results) {
+        long deadline = System.nanoTime() + flushTimeout.toNanos();
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<ScoreResult> future = futures.get(i);
+            if (future == null) {
+                continue;
+            }
+            try {
+                results.set(i, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException | ExecutionException e) {
+                // Still queued, it is written by a later flush
+                log.debug("Score of match {} not written within the flush timeout", results.get(i).getMatchId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write everything that is queued, batch by batch. Failed batches are queued again
+     * unless a newer update of the same match arrived in the meantime.
+     */
+    @Scheduled(fixedDelayString = "${tournament.scores.write-behind.flush-interval:200ms}")
+    void flush() {
+        while (!pending.isEmpty()) {
+            writeLock.lock();
+            try {
+                List<PendingScore> batch = new ArrayList<>(batchSize);
+                for (Long matchId : pending.keySet()) {
+                    PendingScore score = pending.remove(matchId);
+                    if (score != null) {
+                        batch.add(score);
+                    }
+                    if (batch.size() == batchSize) {
+                        break;
+                    }
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                write(batch);
+            } catch (RuntimeException e) {
+                log.warn("Could not write queued scores, retrying with the next flush", e);
+                return;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write updates taken from the queue and answer whoever waits for them. A failed batch is queued
+     * again, unless a newer update of the same match arrived in the meantime, and the failure is rethrown.
+     */
+    private void write(List<PendingScore> batch) {
+        try {
+            List<ScoreResult> results = matchService.submitScores(batch.stream().map(score -> score.submission).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            for (PendingScore score : batch) {
+                PendingScore newer = pending.putIfAbsent(score.submission.getMatchId(), score);
+                if (newer != null) {
+                    newer.chain(score);
+                }
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private static final class PendingScore {
+        private final ScoreSubmission submission;
+        private final CompletableFuture<ScoreResult> future = new CompletableFuture<>();
+
+        PendingScore(ScoreSubmission submission) {
+            this.submission = submission;
+        }
+
+        /**
+         * Complete an older update of the same match together with this one
+         */
+        void chain(PendingScore older) {
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    older.future.completeExceptionally(error);
+                } else {
+                    older.future.complete(result);
+                }
+            });
+        }
+    }
+}
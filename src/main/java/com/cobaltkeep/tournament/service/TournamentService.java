@@ -1,29 +1,76 @@
 package com.cobaltkeep.tournament.service;
 
-import com.cobaltkeep.tournament.entity.Player;
 import com.cobaltkeep.tournament.entity.Tournament;
-import com.cobaltkeep.tournament.repository.PlayerRepository;
 import com.cobaltkeep.tournament.repository.TournamentRepository;
+import com.cobaltkeep.tournament.repository.TournamentSummary;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "tournament.service", description = "Service method calls, tagged with class and method")
+@Counted(value = "tournament.service.failures", recordFailuresOnly = true)
 public class TournamentService {
 
+    // Player ids per enrollment statement, well below the bind parameter limit of the driver
+    private static final int ENROLLMENT_BATCH_SIZE = 1000;
+    private static final Set<String> SUMMARY_SORT_PROPERTIES = Set.of("id", "name", "startDate", "endDate", "locked");
+
     @Autowired
     private TournamentRepository tournamentRepository;
 
     @Autowired
-    private PlayerRepository playerRepository;
+    private BracketSnapshotCache bracketSnapshotCache;
+
+    @Autowired
+    private MatchEventBus matchEventBus;
 
     public List<Tournament> getAllTournaments() {
         return tournamentRepository.findAll();
     }
 
+    /**
+     * Get every tournament with its players, loaded together in one query
+     */
+    public List<Tournament> getAllTournamentsWithPlayers() {
+        return tournamentRepository.findAllWithPlayers();
+    }
+
+    /**
+     * Get one page of tournament summaries, sortable by id, name, startDate, endDate and locked
+     */
+    public Page<TournamentSummary> getTournamentSummaries(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SUMMARY_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort tournaments by " + order.getProperty());
+            }
+        }
+        return tournamentRepository.findSummaries(pageable);
+    }
+
+    /**
+     * Pass every tournament summary to the consumer, ordered by id, while reading them from a database cursor
+     */
+    @Transactional(readOnly = true)
+    public void forEachTournamentSummary(Consumer<TournamentSummary> consumer) {
+        try (Stream<TournamentSummary> summaries = tournamentRepository.streamSummaries()) {
+            summaries.forEach(consumer);
+        }
+    }
+
     public Optional<Tournament> getTournamentById(Long id) {
         return tournamentRepository.findByIdWithPlayers(id);
     }
@@ -33,36 +80,99 @@ public class TournamentService {
         return tournamentRepository.save(tournament);
     }
 
+    /**
+     * Update name, dates and the locked flag. Players are changed through the enrollment methods,
+     * which raise the version, so an update made from an outdated player list fails with a conflict.
+     *
+     * @throws UpdateConflictException if tournamentDetails has a version and the tournament has a different one
+     */
     @Transactional
     public Tournament updateTournament(Long id, Tournament tournamentDetails) {
         Tournament tournament = tournamentRepository.findByIdWithPlayers(id).orElseThrow();
+        if (tournamentDetails.getVersion() != null && !tournamentDetails.getVersion().equals(tournament.getVersion())) {
+            throw new UpdateConflictException("Tournament " + id + " was changed by someone else");
+        }
         tournament.setName(tournamentDetails.getName());
         tournament.setStartDate(tournamentDetails.getStartDate());
         tournament.setEndDate(tournamentDetails.getEndDate());
         tournament.setLocked(tournamentDetails.isLocked());
-        // Preserve players if they exist
-        if (tournamentDetails.getPlayers() != null && !tournamentDetails.getPlayers().isEmpty()) {
-            tournament.setPlayers(tournamentDetails.getPlayers());
-        }
+        bracketSnapshotCache.invalidateAfterCommit(id);
+        matchEventBus.publishAfterCommit(MatchEvent.bracketChanged(id));
         return tournamentRepository.save(tournament);
     }
 
+    @Transactional
     public void deleteTournament(Long id) {
         tournamentRepository.deleteById(id);
+        bracketSnapshotCache.invalidateAfterCommit(id);
     }
 
     @Transactional
     public void unlockTournament(Tournament tournament) {
-        tournament.setLocked(false);
-        tournamentRepository.save(tournament);
+        // Reload by id, the given instance may be part of a shared bracket snapshot
+        Tournament managed = tournamentRepository.findById(tournament.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
+        managed.setLocked(false);
+        tournamentRepository.save(managed);
+        bracketSnapshotCache.invalidateAfterCommit(managed.getId());
+        matchEventBus.publishAfterCommit(MatchEvent.bracketChanged(managed.getId()));
     }
 
+    /**
+     * Enroll players without loading the tournament's player set. Players that are already
+     * enrolled or do not exist are skipped.
+     *
+     * @return the number of players that were enrolled
+     */
     @Transactional
-    public void addPlayersToTournament(Long tournamentId, List<Long> playerIds) {
-        Tournament tournament = tournamentRepository.findByIdWithPlayers(tournamentId)
-                .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
-        List<Player> players = playerRepository.findAllById(playerIds);
-        tournament.getPlayers().addAll(players);
-        tournamentRepository.save(tournament);
+    public int addPlayersToTournament(Long tournamentId, Collection<Long> playerIds) {
+        startPlayerChange(tournamentId);
+        int enrolled = 0;
+        for (List<Long> batch : batches(playerIds)) {
+            enrolled += tournamentRepository.enrollPlayers(tournamentId, batch);
+        }
+        if (enrolled > 0) {
+            bracketSnapshotCache.invalidateAfterCommit(tournamentId);
+        }
+        return enrolled;
+    }
+
+    /**
+     * Remove players from a tournament without loading its player set
+     *
+     * @return the number of players that were removed
+     */
+    @Transactional
+    public int removePlayersFromTournament(Long tournamentId, Collection<Long> playerIds) {
+        startPlayerChange(tournamentId);
+        int removed = 0;
+        for (List<Long> batch : batches(playerIds)) {
+            removed += tournamentRepository.unenrollPlayers(tournamentId, batch);
+        }
+        if (removed > 0) {
+            bracketSnapshotCache.invalidateAfterCommit(tournamentId);
+        }
+        return removed;
+    }
+
+    /**
+     * Raise the version of the tournament for a change of its players, unless it is locked
+     */
+    private void startPlayerChange(Long tournamentId) {
+        if (tournamentRepository.incrementVersionIfUnlocked(tournamentId) == 0) {
+            if (!tournamentRepository.existsById(tournamentId)) {
+                throw new IllegalArgumentException("Tournament not found");
+            }
+            throw new IllegalStateException("Tournament is locked, cannot change its players");
+        }
+    }
+
+    private static List<List<Long>> batches(Collection<Long> playerIds) {
+        List<Long> ids = playerIds.stream().distinct().toList();
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += ENROLLMENT_BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(i + ENROLLMENT_BATCH_SIZE, ids.size())));
+        }
+        return batches;
     }
 }
\ No newline at end of file
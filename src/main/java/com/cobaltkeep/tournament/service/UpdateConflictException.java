@@ -0,0 +1,15 @@
+package com.cobaltkeep.tournament.service;
+
+/**
+ * Thrown when a match or tournament was changed by someone else since the caller read it
+ */
+public class UpdateConflictException extends RuntimeException {
+
+    public UpdateConflictException(String message) {
+        super(message);
+    }
+
+    public UpdateConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
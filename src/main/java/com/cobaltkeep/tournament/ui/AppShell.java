@@ -0,0 +1,11 @@
+package com.cobaltkeep.tournament.ui;
+
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
+
+/**
+ * Enables server push so live bracket views receive match updates made by other users
+ */
+@Push
+public class AppShell implements AppShellConfigurator {
+}
@@ -3,139 +3,273 @@ package com.cobaltkeep.tournament.ui;
 import com.cobaltkeep.tournament.entity.Match;
 import com.cobaltkeep.tournament.entity.Player;
 import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.metrics.BracketLoadEvent;
+import com.cobaltkeep.tournament.metrics.BracketRenderEvent;
+import com.cobaltkeep.tournament.repository.PlayerStanding;
+import com.cobaltkeep.tournament.service.BracketService;
+import com.cobaltkeep.tournament.service.BracketSnapshot;
+import com.cobaltkeep.tournament.service.MatchEvent;
+import com.cobaltkeep.tournament.service.MatchEventBus;
 import com.cobaltkeep.tournament.service.MatchService;
-import com.cobaltkeep.tournament.service.TournamentService;
+import com.cobaltkeep.tournament.service.RoundAdvancementService;
+import com.cobaltkeep.tournament.service.UpdateConflictException;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.H3;
-import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.notification.Notification;
-import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.virtuallist.VirtualList;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
 import com.vaadin.flow.router.BeforeEvent;
 import com.vaadin.flow.router.HasUrlParameter;
 import com.vaadin.flow.router.Route;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Route("bracket")
 public class BracketView extends VerticalLayout implements HasUrlParameter<Long> {
 
-    private final TournamentService tournamentService;
+    private static final int STANDINGS_PAGE_SIZE = 50;
+
     private final MatchService matchService;
+    private final BracketService bracketService;
+    private final RoundAdvancementService roundAdvancementService;
+    private final MatchEventBus matchEventBus;
+    private final MeterRegistry meterRegistry;
     private Long tournamentId;
+    private BracketSnapshot snapshot; // Shared, read-only state of the bracket; all reads during rendering go here
     private List<List<Player>> rounds = new ArrayList<>();
     private List<Player> losers = new ArrayList<>();
-    private Map<String, Match> matchMap = new HashMap<>(); // Key: "roundIndex_player1Id_player2Id" or "losers_player1Id_player2Id"
     private final Button resetButton = new Button("Reset Bracket");
-    private Map<String, IntegerField> pointsFields = new HashMap<>(); // Key: "matchId_player1" or "matchId_player2"
+    private final Button advanceRoundButton = new Button("Advance to Next Round");
+    private final VerticalLayout losersLayout = new VerticalLayout();
+    private final H3 winnerHeader = new H3();
+    private final VerticalLayout standingsLayout = new VerticalLayout();
+    private final Map<Long, MatchRow> mainRows = new HashMap<>(); // Key: match id
+    private final Map<Long, MatchRow> losersRows = new HashMap<>(); // Key: match id
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private Runnable matchEventSubscription;
+
+    // Virtualized mode for large fields: one round at a time, components only for the visible matches
+    private final int virtualizeAbovePlayers;
+    private boolean virtualized;
+    private final Select<Integer> roundSelect = new Select<>();
+    private final VirtualList<MatchPairing> roundList = new VirtualList<>();
+    private final VirtualList<MatchPairing> losersList = new VirtualList<>();
+    private final CallbackDataProvider<MatchPairing, Void> roundDataProvider = new CallbackDataProvider<>(
+            query -> selectedRoundPairings().skip(query.getOffset()).limit(query.getLimit()),
+            query -> selectedRoundMatchCount(),
+            MatchPairing::getKey);
+    private List<MatchPairing> losersPairings = new ArrayList<>();
+    private final CallbackDataProvider<MatchPairing, Void> losersDataProvider = new CallbackDataProvider<>(
+            query -> losersPairings.stream().skip(query.getOffset()).limit(query.getLimit()),
+            query -> losersPairings.size(),
+            MatchPairing::getKey);
+
+    private final MatchRow.Actions rowActions = new MatchRow.Actions() {
+        @Override
+        public void updatePoints(MatchRow row, Integer player1Points, Integer player2Points) {
+            updateMatchPoints(row, player1Points, player2Points);
+        }
+
+        @Override
+        public void selectWinner(MatchRow row, Player winner, Player loser) {
+            advanceLoser(row, winner);
+        }
+    };
 
     @Autowired
-    public BracketView(TournamentService tournamentService, MatchService matchService) {
-        this.tournamentService = tournamentService;
+    public BracketView(MatchService matchService, BracketService bracketService,
+                       RoundAdvancementService roundAdvancementService, MatchEventBus matchEventBus,
+                       MeterRegistry meterRegistry,
+                       @Value("${tournament.bracket.virtualize-above-players:64}") int virtualizeAbovePlayers) {
         this.matchService = matchService;
+        this.bracketService = bracketService;
+        this.roundAdvancementService = roundAdvancementService;
+        this.matchEventBus = matchEventBus;
+        this.meterRegistry = meterRegistry;
+        this.virtualizeAbovePlayers = virtualizeAbovePlayers;
         getStyle().set("winner-button", "border: 2px solid green; padding: 5px");
         resetButton.addClickListener(e -> resetBracket());
+        advanceRoundButton.addClickListener(e -> advanceToNextRound());
+        losersLayout.setWidth("400px");
+        standingsLayout.setWidth("400px");
+
+        roundSelect.setLabel("Round");
+        roundSelect.setItemLabelGenerator(roundIndex -> "Round " + (roundIndex + 1));
+        roundSelect.addValueChangeListener(e -> roundDataProvider.refreshAll());
+        roundList.setRenderer(new ComponentRenderer<>(pairing -> new MatchRow(pairing.getMatch(),
+                pairing.getPlayer1(), pairing.getPlayer2(), Player::getFullName, false, rowActions)));
+        roundList.setDataProvider(roundDataProvider);
+        roundList.setWidth("600px");
+        roundList.setHeight("60vh");
+        losersList.setRenderer(new ComponentRenderer<>(pairing -> new MatchRow(pairing.getMatch(),
+                pairing.getPlayer1(), pairing.getPlayer2(), this::losersLabel, true, rowActions)));
+        losersList.setDataProvider(losersDataProvider);
+        losersList.setWidth("600px");
+        losersList.setHeight("40vh");
         add(resetButton);
     }
 
     @Override
     public void setParameter(BeforeEvent event, Long tournamentId) {
         this.tournamentId = tournamentId;
-        Tournament tournament = tournamentService.getTournamentById(tournamentId)
-                .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
+        if (matchEventSubscription != null) {
+            // The view is reused for another tournament
+            matchEventSubscription.run();
+            getUI().ifPresent(this::subscribeToMatchEvents);
+        }
+        BracketLoadEvent loadEvent = new BracketLoadEvent();
+        loadEvent.setTournamentId(tournamentId);
+        loadEvent.start();
+        snapshot = loadSnapshot(true);
+        Tournament tournament = snapshot.getTournament();
         if (tournament.getPlayers().size() < 4 || tournament.getPlayers().size() % 2 != 0) {
             throw new IllegalStateException("Tournament must have at least 4 players and an even number");
         }
-        initializeBracket(tournament);
+        virtualized = tournament.getPlayers().size() > virtualizeAbovePlayers;
+        boolean firstRoundCreated = initializeBracket();
+        if (firstRoundCreated) {
+            snapshot = bracketService.loadSnapshot(tournamentId);
+            rebuildRounds();
+        }
+        loadEvent.setPlayerCount(tournament.getPlayers().size());
+        loadEvent.setMatchCount(snapshot.getMatches().size());
+        loadEvent.setFirstRoundCreated(firstRoundCreated);
+        loadEvent.finish();
         renderBracket();
     }
 
-    private void initializeBracket(Tournament tournament) {
-        rounds.clear();
-        losers.clear();
-        matchMap.clear();
-        pointsFields.clear();
-
-        // Load existing matches
-        List<Match> existingMatches = matchService.getMatchesByTournamentAndBracketType(tournament, "main");
-        if (existingMatches.isEmpty()) {
-            // Initialize first round
-            List<Player> randomizedPlayers = new ArrayList<>(tournament.getPlayers());
-            Collections.shuffle(randomizedPlayers);
-            rounds.add(randomizedPlayers);
-            // Create matches for first round
-            for (int i = 0; i < randomizedPlayers.size(); i += 2) {
-                if (i + 1 < randomizedPlayers.size()) {
-                    Player player1 = randomizedPlayers.get(i);
-                    Player player2 = randomizedPlayers.get(i + 1);
-                    Match match = matchService.createMatch(player1, player2, 0, "main", tournament);
-                    matchMap.put("0_" + player1.getId() + "_" + player2.getId(), match);
-                }
-            }
-        } else {
-            // Reconstruct rounds from existing matches
-            int maxRound = existingMatches.stream().mapToInt(Match::getRound).max().orElse(0);
-            for (int roundIndex = 0; roundIndex <= maxRound; roundIndex++) {
-                List<Player> round = new ArrayList<>();
-                List<Match> roundMatches = matchService.getMatchesByTournamentAndBracketTypeAndRound(tournament, "main", roundIndex);
-                for (Match match : roundMatches) {
-                    round.add(match.getPlayer1());
-                    round.add(match.getPlayer2());
-                    matchMap.put(roundIndex + "_" + match.getPlayer1().getId() + "_" + match.getPlayer2().getId(), match);
-                    if (match.getWinner() != null && !match.getWinner().equals(match.getPlayer1())) {
-                        losers.add(match.getPlayer1());
-                    } else if (match.getWinner() != null) {
-                        losers.add(match.getPlayer2());
-                    }
-                }
-                if (!round.isEmpty()) {
-                    rounds.add(round);
-                }
-            }
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        subscribeToMatchEvents(attachEvent.getUI());
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (matchEventSubscription != null) {
+            matchEventSubscription.run();
+            matchEventSubscription = null;
         }
+        super.onDetach(detachEvent);
+    }
 
-        // Load losers matches
-        List<Match> losersMatches = matchService.getMatchesByTournamentAndBracketType(tournament, "losers");
-        for (Match match : losersMatches) {
-            matchMap.put("losers_" + match.getPlayer1().getId() + "_" + match.getPlayer2().getId(), match);
-            if (match.getWinner() != null && !match.getWinner().equals(match.getPlayer1())) {
-                losers.remove(match.getPlayer1());
-                losers.add(match.getWinner());
-            } else if (match.getWinner() != null) {
-                losers.remove(match.getPlayer2());
-                losers.add(match.getWinner());
-            }
+    /**
+     * Rebuild the rounds and the losers list from the current snapshot.
+     * Creates the first round when the tournament has no matches yet.
+     *
+     * @return true if matches were created and the snapshot must be reloaded
+     */
+    private boolean initializeBracket() {
+        rounds.clear();
+
+        List<List<Match>> mainRounds = snapshot.getMainRounds();
+        if (mainRounds.isEmpty()) {
+            losers.clear();
+            // Create matches for first round, unless another viewer just did
+            roundAdvancementService.createFirstRound(tournamentId);
+            return true;
         }
+
+        rebuildRounds();
+        return false;
+    }
+
+    /**
+     * Reconstruct rounds and losers from the matches in the snapshot, without creating anything
+     */
+    private void rebuildRounds() {
+        rounds.clear();
+        rounds.addAll(snapshot.getRoundPlayers());
+        rebuildLosers();
     }
 
-    private int getPlayerWins(Player player) {
-        return (int) matchService.getMatchesByTournamentAndBracketType(tournamentService.getTournamentById(tournamentId).get(), "main")
-                .stream()
-                .filter(m -> m.getWinner() != null && m.getWinner().equals(player))
-                .count()
-                + (int) matchService.getMatchesByTournamentAndBracketType(tournamentService.getTournamentById(tournamentId).get(), "losers")
-                .stream()
-                .filter(m -> m.getWinner() != null && m.getWinner().equals(player))
-                .count();
+    private void rebuildLosers() {
+        losers.clear();
+        losers.addAll(snapshot.getLosers());
     }
 
-    private int getPlayerTotalPoints(Player player) {
-        return matchService.calculatePlayerStats(tournamentService.getTournamentById(tournamentId).get())
-                .getOrDefault(player, new MatchService.PlayerStats(0, 0))
-                .getTotalPoints();
+    /**
+     * Reload the snapshot after a change and render it
+     */
+    private void refreshBracket() {
+        snapshot = loadSnapshot(true);
+        rebuildRounds();
+        renderBracket();
     }
 
+    /**
+     * Load the current snapshot. With createMissingMatches the losers matches it is missing are
+     * created first, by the service under the tournament lock, so rendering never writes.
+     *
+     * @param createMissingMatches true after this user's own changes,
+     *                             false when rendering in response to another user's change
+     */
+    private BracketSnapshot loadSnapshot(boolean createMissingMatches) {
+        BracketSnapshot latest = bracketService.loadSnapshot(tournamentId);
+        if (createMissingMatches && latest.hasMissingLosersMatches()) {
+            roundAdvancementService.createLosersMatches(tournamentId);
+            latest = bracketService.loadSnapshot(tournamentId);
+        }
+        return latest;
+    }
+
+    /**
+     * Build the whole bracket. Only used when the structure changed; score changes go through {@link #applyMatchUpdate}.
+     */
     private void renderBracket() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BracketRenderEvent renderEvent = new BracketRenderEvent();
+        renderEvent.setTournamentId(tournamentId);
+        renderEvent.start();
         removeAll();
+        mainRows.clear();
         add(new H3("Tournament Bracket"), resetButton);
 
+        if (virtualized) {
+            renderRoundsVirtualized();
+        } else {
+            renderRounds();
+        }
+
+        renderLosers();
+        add(losersLayout, winnerHeader, advanceRoundButton, standingsLayout);
+        updateWinner();
+        updateAdvanceButton();
+        renderStandings();
+
+        // Server-side time only; the snapshot was loaded before, so this is the Vaadin part of a slow page
+        String mode = virtualized ? "virtualized" : "full";
+        sample.stop(meterRegistry.timer("tournament.bracket.render", "mode", mode));
+        int componentCount = countComponents(this);
+        meterRegistry.summary("tournament.bracket.components", "mode", mode).record(componentCount);
+        renderEvent.setMatchCount(snapshot.getMatches().size());
+        renderEvent.setComponentCount(componentCount);
+        renderEvent.setVirtualized(virtualized);
+        renderEvent.finish();
+    }
+
+    private static int countComponents(Component component) {
+        return 1 + component.getChildren().mapToInt(BracketView::countComponents).sum();
+    }
+
+    private void renderRounds() {
         for (int roundIndex = 0; roundIndex < rounds.size(); roundIndex++) {
             List<Player> round = rounds.get(roundIndex);
             VerticalLayout roundLayout = new VerticalLayout();
@@ -146,175 +280,194 @@ public class BracketView extends VerticalLayout implements HasUrlParameter<Long>
                 if (i + 1 < round.size()) {
                     Player player1 = round.get(i);
                     Player player2 = round.get(i + 1);
-                    String matchKey = roundIndex + "_" + player1.getId() + "_" + player2.getId();
-                    Match match = matchMap.get(matchKey);
-                    Player winner = match != null ? match.getWinner() : null;
-
-                    HorizontalLayout matchLayout = new HorizontalLayout();
-                    matchLayout.setAlignItems(Alignment.CENTER);
-                    
-                    // Create points input fields
-                    IntegerField player1PointsField = new IntegerField();
-                    player1PointsField.setLabel("Points");
-                    player1PointsField.setWidth("80px");
-                    player1PointsField.setValue(match != null ? match.getPlayer1Points() : null);
-                    
-                    IntegerField player2PointsField = new IntegerField();
-                    player2PointsField.setLabel("Points");
-                    player2PointsField.setWidth("80px");
-                    player2PointsField.setValue(match != null ? match.getPlayer2Points() : null);
-                    
-                    // Store references to points fields
+                    Match match = snapshot.findMatch("main", roundIndex, player1, player2);
+                    MatchRow row = new MatchRow(match, player1, player2, Player::getFullName, false, rowActions);
                     if (match != null) {
-                        pointsFields.put(match.getId() + "_player1", player1PointsField);
-                        pointsFields.put(match.getId() + "_player2", player2PointsField);
+                        mainRows.put(match.getId(), row);
                     }
-
-                    Button player1Button = new Button(player1.getFullName());
-                    Button player2Button = new Button(player2.getFullName());
-                    Button updatePointsButton = new Button("Update Points", e -> updateMatchPoints(match, player1PointsField, player2PointsField));
-
-                    // Highlight winner
-                    if (winner != null) {
-                        if (winner.equals(player1)) {
-                            player1Button.addClassName("winner-button");
-                            player1Button.setEnabled(false);
-                            player2Button.setEnabled(false);
-                        } else if (winner.equals(player2)) {
-                            player2Button.addClassName("winner-button");
-                            player1Button.setEnabled(false);
-                            player2Button.setEnabled(false);
-                        }
-                    }
-
-                    matchLayout.add(player1Button, player1PointsField, new Button("vs"), player2PointsField, player2Button, updatePointsButton);
-                    roundLayout.add(matchLayout);
+                    roundLayout.add(row);
                 }
             }
             add(roundLayout);
         }
+    }
 
-        // Losers matches
-        if (!losers.isEmpty()) {
-            VerticalLayout losersLayout = new VerticalLayout();
-            losersLayout.setWidth("400px");
-            losersLayout.add(new H3("Losers Bracket"));
-
-            // Sort losers by wins and points (descending)
-            List<Player> sortedLosers = new ArrayList<>(losers);
-            sortedLosers.sort((p1, p2) -> {
-                int wins1 = getPlayerWins(p1);
-                int wins2 = getPlayerWins(p2);
-                if (wins1 != wins2) {
-                    return Integer.compare(wins2, wins1);
-                }
-                int points1 = getPlayerTotalPoints(p1);
-                int points2 = getPlayerTotalPoints(p2);
-                return Integer.compare(points2, points1);
-            });
+    private void renderRoundsVirtualized() {
+        Integer selectedRound = roundSelect.getValue();
+        roundSelect.setItems(IntStream.range(0, rounds.size()).boxed().toList());
+        if (!rounds.isEmpty()) {
+            // Keep the round the user is looking at, default to the latest one
+            roundSelect.setValue(selectedRound != null && selectedRound < rounds.size() ? selectedRound : rounds.size() - 1);
+        }
+        roundDataProvider.refreshAll();
+        add(roundSelect, roundList);
+    }
 
-            for (int i = 0; i < sortedLosers.size(); i += 2) {
-                if (i + 1 < sortedLosers.size()) {
-                    Player player1 = sortedLosers.get(i);
-                    Player player2 = sortedLosers.get(i + 1);
-                    String matchKey = "losers_" + player1.getId() + "_" + player2.getId();
-                    Match match = matchMap.get(matchKey);
-                    Player winner = match != null ? match.getWinner() : null;
-
-                    // Create match if it doesn't exist
-                    if (match == null) {
-                        match = matchService.createMatch(player1, player2, 0, "losers",
-                                tournamentService.getTournamentById(tournamentId).get());
-                        matchMap.put(matchKey, match);
-                    }
+    private Stream<MatchPairing> selectedRoundPairings() {
+        Integer roundIndex = roundSelect.getValue();
+        if (roundIndex == null || roundIndex >= rounds.size()) {
+            return Stream.empty();
+        }
+        List<Player> round = rounds.get(roundIndex);
+        return IntStream.range(0, round.size() / 2).mapToObj(i -> {
+            Player player1 = round.get(2 * i);
+            Player player2 = round.get(2 * i + 1);
+            return new MatchPairing(player1, player2, snapshot.findMatch("main", roundIndex, player1, player2));
+        });
+    }
 
-                    HorizontalLayout matchLayout = new HorizontalLayout();
-                    matchLayout.setAlignItems(Alignment.CENTER);
-                    
-                    // Create points input fields for losers matches
-                    IntegerField player1PointsField = new IntegerField();
-                    player1PointsField.setLabel("Points");
-                    player1PointsField.setWidth("80px");
-                    player1PointsField.setValue(match.getPlayer1Points());
-                    
-                    IntegerField player2PointsField = new IntegerField();
-                    player2PointsField.setLabel("Points");
-                    player2PointsField.setWidth("80px");
-                    player2PointsField.setValue(match.getPlayer2Points());
-                    
-                    pointsFields.put(match.getId() + "_player1", player1PointsField);
-                    pointsFields.put(match.getId() + "_player2", player2PointsField);
-
-                    Button player1Button = new Button(player1.getFullName() + " (" + getPlayerWins(player1) + " wins, " + getPlayerTotalPoints(player1) + " pts)");
-                    Button player2Button = new Button(player2.getFullName() + " (" + getPlayerWins(player2) + " wins, " + getPlayerTotalPoints(player2) + " pts)");
-                    Match finalMatch = match;
-                    Button updatePointsButton = new Button("Update Points", e -> updateMatchPoints(finalMatch, player1PointsField, player2PointsField));
-
-                    // Add click handlers for advancing losers
-                    player1Button.addClickListener(e -> advanceLoser(player1, player2));
-                    player2Button.addClickListener(e -> advanceLoser(player2, player1));
-
-                    // Highlight winner
-                    if (winner != null) {
-                        if (winner.equals(player1)) {
-                            player1Button.addClassName("winner-button");
-                            player1Button.setEnabled(false);
-                            player2Button.setEnabled(false);
-                        } else if (winner.equals(player2)) {
-                            player2Button.addClassName("winner-button");
-                            player1Button.setEnabled(false);
-                            player2Button.setEnabled(false);
-                        }
-                    }
+    private int selectedRoundMatchCount() {
+        Integer roundIndex = roundSelect.getValue();
+        return roundIndex == null || roundIndex >= rounds.size() ? 0 : rounds.get(roundIndex).size() / 2;
+    }
 
-                    matchLayout.add(player1Button, player1PointsField, new Button("vs"), player2PointsField, player2Button, updatePointsButton);
-                    losersLayout.add(matchLayout);
-                }
+    private void renderLosers() {
+        losersLayout.removeAll();
+        losersRows.clear();
+        losersLayout.setVisible(!losers.isEmpty());
+        losersLayout.add(new H3("Losers Bracket"));
+
+        // Losers sorted by wins and points (descending); a pair whose match is not created yet has no inputs
+        List<Player> sortedLosers = snapshot.getLosersByStanding();
+
+        List<MatchPairing> pairings = new ArrayList<>();
+        for (int i = 0; i < sortedLosers.size(); i += 2) {
+            if (i + 1 < sortedLosers.size()) {
+                Player player1 = sortedLosers.get(i);
+                Player player2 = sortedLosers.get(i + 1);
+                pairings.add(new MatchPairing(player1, player2, snapshot.findMatch("losers", 0, player1, player2)));
             }
-            add(losersLayout);
         }
 
+        if (virtualized) {
+            losersPairings = pairings;
+            losersDataProvider.refreshAll();
+            losersLayout.add(losersList);
+            return;
+        }
+        for (MatchPairing pairing : pairings) {
+            MatchRow row = new MatchRow(pairing.getMatch(), pairing.getPlayer1(), pairing.getPlayer2(),
+                    this::losersLabel, true, rowActions);
+            if (pairing.getMatch() != null) {
+                losersRows.put(pairing.getMatch().getId(), row);
+            }
+            losersLayout.add(row);
+        }
+    }
+
+    private String losersLabel(Player player) {
+        return player.getFullName() + " (" + snapshot.getWins(player) + " wins, " + snapshot.getTotalPoints(player) + " pts)";
+    }
+
+    private void updateWinner() {
+        winnerHeader.setVisible(false);
         // Check for tournament winner
         if (rounds.size() > 1 && rounds.get(rounds.size() - 1).size() == 1) {
             Player winner = rounds.get(rounds.size() - 1).get(0);
-            add(new H3("Winner: " + winner.getFullName() + " (" + getPlayerTotalPoints(winner) + " total points)"));
+            winnerHeader.setText("Winner: " + winner.getFullName() + " (" + snapshot.getTotalPoints(winner) + " total points)");
+            winnerHeader.setVisible(true);
         } else if (rounds.size() > 0 && rounds.get(rounds.size() - 1).size() == 2) {
             // Handle final round with 2 players - determine winner by points
             List<Player> finalRound = rounds.get(rounds.size() - 1);
             Player player1 = finalRound.get(0);
             Player player2 = finalRound.get(1);
-            
-            int points1 = getPlayerTotalPoints(player1);
-            int points2 = getPlayerTotalPoints(player2);
-            
+
+            int points1 = snapshot.getTotalPoints(player1);
+            int points2 = snapshot.getTotalPoints(player2);
+
             Player finalWinner = points1 >= points2 ? player1 : player2;
-            add(new H3("Winner: " + finalWinner.getFullName() + " (" + getPlayerTotalPoints(finalWinner) + " total points)"));
+            winnerHeader.setText("Winner: " + finalWinner.getFullName() + " (" + snapshot.getTotalPoints(finalWinner) + " total points)");
+            winnerHeader.setVisible(true);
+        }
+    }
+
+    private void updateAdvanceButton() {
+        // Show button to advance to next round based on points, as long as there are enough players to pair
+        advanceRoundButton.setVisible(rounds.size() > 0 && snapshot.isRoundCompleted(rounds.size() - 1)
+                && snapshot.getRankedPlayers().size() > 2);
+    }
+
+    private void subscribeToMatchEvents(UI ui) {
+        matchEventSubscription = matchEventBus.subscribe(tournamentId, event -> onMatchEvent(ui, event));
+    }
+
+    /**
+     * Called on the publishing thread; all work is handed over to the UI through push
+     */
+    private void onMatchEvent(UI ui, MatchEvent event) {
+        if (event.getType() == MatchEvent.Type.MATCH_UPDATED) {
+            ui.access(() -> applyMatchUpdate(event.getMatchId(), false));
+        } else if (refreshPending.compareAndSet(false, true)) {
+            // Structural changes often come in bursts, e.g. one per created match: refresh once
+            ui.access(() -> {
+                refreshPending.set(false);
+                BracketSnapshot latest = bracketService.loadSnapshot(tournamentId);
+                if (latest != snapshot) {
+                    snapshot = latest;
+                    rebuildRounds();
+                    renderBracket();
+                }
+            });
         }
+    }
 
-        // Add button to advance to next round based on points
-        if (rounds.size() > 0 && matchService.areAllMatchesInRoundCompleted(
-                tournamentService.getTournamentById(tournamentId).get(), rounds.size() - 1)) {
-            Button advanceRoundButton = new Button("Advance to Next Round", e -> advanceToNextRound());
-            add(advanceRoundButton);
+    /**
+     * Update only the components that depend on a changed match: its row, the stats labels
+     * in the losers bracket, the winner, the advance button and the standings.
+     */
+    private void applyMatchUpdate(Long matchId, boolean createMissingMatches) {
+        BracketSnapshot latest = loadSnapshot(createMissingMatches);
+        boolean snapshotChanged = latest != snapshot;
+        snapshot = latest;
+
+        if (virtualized) {
+            if (snapshotChanged) {
+                // Only the visible rows are rebuilt, so this stays cheap however large the bracket is
+                rebuildLosers();
+                renderLosers();
+                roundDataProvider.refreshAll();
+                updateWinner();
+                updateAdvanceButton();
+                renderStandings();
+            }
+            return;
+        }
+
+        Match match = snapshot.getMatch(matchId);
+        MatchRow row = mainRows.containsKey(matchId) ? mainRows.get(matchId) : losersRows.get(matchId);
+        if (match == null || row == null) {
+            // Not on screen yet, e.g. a losers match another user just created
+            rebuildRounds();
+            renderBracket();
+            return;
         }
 
-        // Add player standings
-        addPlayerStandings();
+        if (row.update(match)) {
+            // A new winner changes who is in the losers bracket
+            rebuildLosers();
+            renderLosers();
+        } else if (snapshotChanged) {
+            losersRows.values().forEach(MatchRow::refreshLabels);
+        }
+        if (snapshotChanged) {
+            updateWinner();
+            updateAdvanceButton();
+            renderStandings();
+        }
     }
 
-    private void updateMatchPoints(Match match, IntegerField player1PointsField, IntegerField player2PointsField) {
+    private void updateMatchPoints(MatchRow row, Integer player1Points, Integer player2Points) {
         try {
-            Integer player1Points = player1PointsField.getValue();
-            Integer player2Points = player2PointsField.getValue();
-            
             if (player1Points == null || player2Points == null) {
                 Notification.show("Please enter points for both players");
                 return;
             }
-            
-            matchService.updateMatchPoints(match, player1Points, player2Points);
+
+            matchService.updateMatchPoints(row.getMatchId(), row.getVersion(), player1Points, player2Points);
             Notification.show("Points updated successfully");
-            renderBracket(); // Refresh the bracket
+            applyMatchUpdate(row.getMatchId(), true);
+        } catch (UpdateConflictException e) {
+            showConflict(row);
         } catch (Exception e) {
             Notification.show("Error updating points: " + e.getMessage());
         }
@@ -322,119 +475,87 @@ public class BracketView extends VerticalLayout implements HasUrlParameter<Long>
 
     private void advanceToNextRound() {
         try {
-            Tournament tournament = tournamentService.getTournamentById(tournamentId).get();
             int currentRound = rounds.size() - 1;
-            
-            if (!matchService.areAllMatchesInRoundCompleted(tournament, currentRound)) {
+            if (!snapshot.isRoundCompleted(currentRound)) {
                 Notification.show("All matches in the current round must be completed first");
                 return;
             }
-            
-            // Get all players and their stats
-            Map<Player, MatchService.PlayerStats> playerStats = matchService.calculatePlayerStats(tournament);
-            
-            // Sort players by wins (descending), then by points (descending)
-            List<Player> sortedPlayers = new ArrayList<>(playerStats.keySet());
-            sortedPlayers.sort((p1, p2) -> {
-                MatchService.PlayerStats stats1 = playerStats.get(p1);
-                MatchService.PlayerStats stats2 = playerStats.get(p2);
-                
-                if (stats1.getWins() != stats2.getWins()) {
-                    return Integer.compare(stats2.getWins(), stats1.getWins());
-                }
-                return Integer.compare(stats2.getTotalPoints(), stats1.getTotalPoints());
-            });
-            
-            // If we have 2 or fewer players, this is the final round
-            if (sortedPlayers.size() <= 2) {
-                List<Player> finalRound = new ArrayList<>(sortedPlayers);
-                rounds.add(finalRound);
-                renderBracket();
-                Notification.show("Final round created! Winner will be determined by total points.");
+
+            // Serialized per tournament: if someone else advanced first, their round is returned
+            List<Match> nextRound = roundAdvancementService.advance(tournamentId, currentRound);
+            if (nextRound.isEmpty()) {
+                // Nothing was created: too few players are left to pair, the standings decide
+                refreshBracket();
+                Notification.show("No further round: fewer than three players remain. Winner is determined by total points.");
                 return;
             }
-            
-            // Create next round with paired players
-            List<Player> nextRound = new ArrayList<>();
-            for (int i = 0; i < sortedPlayers.size(); i += 2) {
-                if (i + 1 < sortedPlayers.size()) {
-                    Player player1 = sortedPlayers.get(i);
-                    Player player2 = sortedPlayers.get(i + 1);
-                    Match match = matchService.createMatch(player1, player2, currentRound + 1, "main", tournament);
-                    matchMap.put((currentRound + 1) + "_" + player1.getId() + "_" + player2.getId(), match);
-                    nextRound.add(player1);
-                    nextRound.add(player2);
-                }
-            }
-            
-            rounds.add(nextRound);
-            renderBracket();
+            refreshBracket();
             Notification.show("Advanced to Round " + (currentRound + 2));
-            
+
         } catch (Exception e) {
             Notification.show("Error advancing to next round: " + e.getMessage());
         }
     }
 
-    private void advanceLoser(Player winner, Player loser) {
-        String matchKey = "losers_" + winner.getId() + "_" + loser.getId();
-        Match match = matchMap.get(matchKey);
-        if (match != null) {
-            matchService.updateMatchWinner(match, winner);
+    private void advanceLoser(MatchRow row, Player winner) {
+        try {
+            matchService.updateMatchWinner(row.getMatchId(), row.getVersion(), winner.getId());
+            applyMatchUpdate(row.getMatchId(), true);
+        } catch (UpdateConflictException e) {
+            showConflict(row);
+        } catch (Exception e) {
+            Notification.show("Error advancing player: " + e.getMessage());
         }
-        losers.remove(loser);
-        losers.remove(winner);
-        losers.add(winner);
-        renderBracket();
+    }
+
+    /**
+     * Someone else changed the match first: show their result instead of overwriting it
+     */
+    private void showConflict(MatchRow row) {
+        Notification.show("This match was just changed by someone else. The latest result is shown, please check it and try again.");
+        applyMatchUpdate(row.getMatchId(), false);
     }
 
     private void resetBracket() {
         try {
-            Tournament tournament = tournamentService.getTournamentById(tournamentId)
-                    .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
-            matchService.deleteMatchesByTournament(tournament);
-            tournamentService.unlockTournament(tournament);
-            initializeBracket(tournament);
-            renderBracket();
+            roundAdvancementService.resetBracket(tournamentId);
+            snapshot = bracketService.loadSnapshot(tournamentId);
+            if (initializeBracket()) {
+                refreshBracket();
+            } else {
+                renderBracket();
+            }
             Notification.show("Bracket reset successfully!");
         } catch (Exception e) {
             Notification.show("Error resetting bracket: " + e.getMessage());
         }
     }
 
-    private void addPlayerStandings() {
-        try {
-            Tournament tournament = tournamentService.getTournamentById(tournamentId).get();
-            Map<Player, MatchService.PlayerStats> playerStats = matchService.calculatePlayerStats(tournament);
-            
-            VerticalLayout standingsLayout = new VerticalLayout();
-            standingsLayout.add(new H3("Player Standings"));
-            standingsLayout.setWidth("400px");
-            
-            // Sort players by wins (descending), then by points (descending)
-            List<Player> sortedPlayers = new ArrayList<>(playerStats.keySet());
-            sortedPlayers.sort((p1, p2) -> {
-                MatchService.PlayerStats stats1 = playerStats.get(p1);
-                MatchService.PlayerStats stats2 = playerStats.get(p2);
-                
-                if (stats1.getWins() != stats2.getWins()) {
-                    return Integer.compare(stats2.getWins(), stats1.getWins());
-                }
-                return Integer.compare(stats2.getTotalPoints(), stats1.getTotalPoints());
+    private void renderStandings() {
+        standingsLayout.removeAll();
+        standingsLayout.add(new H3("Player Standings"));
+        addStandingsPage(0);
+    }
+
+    private void addStandingsPage(int pageNumber) {
+        // Ranked once per snapshot and shared by every viewer, so refreshing after each score change is cheap
+        List<PlayerStanding> standings = snapshot.getStandings();
+        int from = Math.min(pageNumber * STANDINGS_PAGE_SIZE, standings.size());
+        int to = Math.min(from + STANDINGS_PAGE_SIZE, standings.size());
+        for (PlayerStanding standing : standings.subList(from, to)) {
+            String standingText = standing.getStandingRank() + ". " + standing.getFullName() +
+                                " - " + standing.getWins() + " wins, " +
+                                standing.getTotalPoints() + " points";
+            standingsLayout.add(standingText);
+        }
+
+        if (to < standings.size()) {
+            Button showMoreButton = new Button("Show more");
+            showMoreButton.addClickListener(e -> {
+                standingsLayout.remove(showMoreButton);
+                addStandingsPage(pageNumber + 1);
             });
-            
-            for (int i = 0; i < sortedPlayers.size(); i++) {
-                Player player = sortedPlayers.get(i);
-                MatchService.PlayerStats stats = playerStats.get(player);
-                String standingText = (i + 1) + ". " + player.getFullName() + 
-                                    " - " + stats.getWins() + " wins, " + 
-                                    stats.getTotalPoints() + " points";
-                standingsLayout.add(standingText);
-            }
-            
-            add(standingsLayout);
-        } catch (Exception e) {
-            Notification.show("Error loading standings: " + e.getMessage());
+            standingsLayout.add(showMoreButton);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.cobaltkeep.tournament.ui;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+
+/**
+ * Two paired players and their match, if it exists yet. Item type of the virtualized bracket lists.
+ */
+class MatchPairing {
+
+    private final Player player1;
+    private final Player player2;
+    private final Match match;
+
+    MatchPairing(Player player1, Player player2, Match match) {
+        this.player1 = player1;
+        this.player2 = player2;
+        this.match = match;
+    }
+
+    Player getPlayer1() { return player1; }
+    Player getPlayer2() { return player2; }
+    Match getMatch() { return match; }
+
+    // Stable across snapshots, used as the data provider identifier
+    String getKey() { return player1.getId() + "_" + player2.getId(); }
+}
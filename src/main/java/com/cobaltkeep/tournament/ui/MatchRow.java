@@ -0,0 +1,111 @@
+package com.cobaltkeep.tournament.ui;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * One match of the bracket: both players, their points and the "Update Points" button.
+ * Kept by the bracket view so a changed match can be updated in place instead of re-rendering the bracket.
+ */
+class MatchRow extends HorizontalLayout {
+
+    interface Actions {
+        void updatePoints(MatchRow row, Integer player1Points, Integer player2Points);
+
+        // Only used in the losers bracket, where clicking a player advances them
+        default void selectWinner(MatchRow row, Player winner, Player loser) {}
+    }
+
+    private final Long matchId;
+    private final Player player1;
+    private final Player player2;
+    private final Function<Player, String> playerLabel;
+    private final IntegerField player1PointsField = createPointsField();
+    private final IntegerField player2PointsField = createPointsField();
+    private final Button player1Button = new Button();
+    private final Button player2Button = new Button();
+    private Long winnerId;
+    private Long version;
+
+    /**
+     * @param match the match, or null if it does not exist yet
+     * @param selectableWinner true if clicking a player selects them as the winner
+     */
+    MatchRow(Match match, Player player1, Player player2, Function<Player, String> playerLabel,
+             boolean selectableWinner, Actions actions) {
+        this.matchId = match != null ? match.getId() : null;
+        this.player1 = player1;
+        this.player2 = player2;
+        this.playerLabel = playerLabel;
+        setAlignItems(Alignment.CENTER);
+
+        Button updatePointsButton = new Button("Update Points", e ->
+                actions.updatePoints(this, player1PointsField.getValue(), player2PointsField.getValue()));
+        if (selectableWinner) {
+            player1Button.addClickListener(e -> actions.selectWinner(this, player1, player2));
+            player2Button.addClickListener(e -> actions.selectWinner(this, player2, player1));
+        }
+        if (match == null) {
+            player1PointsField.setEnabled(false);
+            player2PointsField.setEnabled(false);
+            updatePointsButton.setEnabled(false);
+        }
+
+        refreshLabels();
+        update(match);
+        add(player1Button, player1PointsField, new Button("vs"), player2PointsField, player2Button, updatePointsButton);
+    }
+
+    Long getMatchId() { return matchId; }
+
+    // Version of the match last shown, sent with updates so a change by someone else is detected
+    Long getVersion() { return version; }
+
+    /**
+     * Show the current points and winner of the match
+     *
+     * @return true if the winner changed
+     */
+    boolean update(Match match) {
+        Long newWinnerId = match != null && match.getWinner() != null ? match.getWinner().getId() : null;
+        version = match != null ? match.getVersion() : null;
+        player1PointsField.setValue(match != null ? match.getPlayer1Points() : null);
+        player2PointsField.setValue(match != null ? match.getPlayer2Points() : null);
+
+        // Highlight winner
+        player1Button.removeClassName("winner-button");
+        player2Button.removeClassName("winner-button");
+        if (Objects.equals(newWinnerId, player1.getId())) {
+            player1Button.addClassName("winner-button");
+        } else if (Objects.equals(newWinnerId, player2.getId())) {
+            player2Button.addClassName("winner-button");
+        }
+        player1Button.setEnabled(newWinnerId == null);
+        player2Button.setEnabled(newWinnerId == null);
+
+        boolean winnerChanged = !Objects.equals(winnerId, newWinnerId);
+        winnerId = newWinnerId;
+        return winnerChanged;
+    }
+
+    /**
+     * Recompute the player button labels, e.g. after the players' stats changed
+     */
+    void refreshLabels() {
+        player1Button.setText(playerLabel.apply(player1));
+        player2Button.setText(playerLabel.apply(player2));
+    }
+
+    private static IntegerField createPointsField() {
+        IntegerField field = new IntegerField();
+        field.setLabel("Points");
+        field.setWidth("80px");
+        return field;
+    }
+}
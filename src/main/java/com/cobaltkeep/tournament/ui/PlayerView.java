@@ -2,21 +2,36 @@ package com.cobaltkeep.tournament.ui;
 
 import com.cobaltkeep.tournament.entity.Player;
 import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.service.PlayerImportResult;
+import com.cobaltkeep.tournament.service.PlayerImportService;
 import com.cobaltkeep.tournament.service.PlayerService;
 import com.cobaltkeep.tournament.service.TournamentService;
+import com.cobaltkeep.tournament.service.UpdateConflictException;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.FileBuffer;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.data.binder.ValidationException;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.BeforeEvent;
 import com.vaadin.flow.router.HasUrlParameter;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.io.InputStream;
 import java.util.Set;
 
 @Route("players")
@@ -24,34 +39,55 @@ public class PlayerView extends VerticalLayout implements HasUrlParameter<Long>
 
     private final PlayerService playerService;
     private final TournamentService tournamentService;
+    private final PlayerImportService playerImportService;
+    private final TaskExecutor taskExecutor;
     private Long tournamentId;
     private Tournament tournament;
     private final Grid<Player> assignedGrid = new Grid<>(Player.class);
     private final Grid<Player> availableGrid = new Grid<>(Player.class);
     private final TextField firstName = new TextField("First Name");
     private final TextField lastName = new TextField("Last Name");
+    private final TextField availableFilter = new TextField();
     private final Button saveButton = new Button("Save");
     private final Button backButton = new Button("Back to Tournaments");
     private final Button deleteButton = new Button("Delete");
     private final Button addButton = new Button("Add to Tournament");
     private final Button startTournamentButton = new Button("Start Tournament");
     private final Binder<Player> binder = new Binder<>(Player.class);
+    private final FileBuffer importBuffer = new FileBuffer();
+    private final Upload importUpload = new Upload(importBuffer);
+    private final Checkbox enrollImported = new Checkbox("Add imported players to this tournament", true);
+    private final ProgressBar importProgress = new ProgressBar();
+    private final Span importStatus = new Span();
 
     @Autowired
-    public PlayerView(PlayerService playerService, TournamentService tournamentService) {
+    public PlayerView(PlayerService playerService, TournamentService tournamentService,
+                      PlayerImportService playerImportService,
+                      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
         this.playerService = playerService;
         this.tournamentService = tournamentService;
+        this.playerImportService = playerImportService;
+        this.taskExecutor = taskExecutor;
 
         // Configure assigned grid
         assignedGrid.setColumns("id");
         assignedGrid.addColumn(Player::getFullName).setHeader("Assigned Players");
-        assignedGrid.asSingleSelect().addValueChangeListener(event ->
-                deleteButton.setEnabled(event.getValue() != null));
+        assignedGrid.setSelectionMode(Grid.SelectionMode.MULTI);
+        assignedGrid.addSelectionListener(event ->
+                deleteButton.setEnabled(!event.getAllSelectedItems().isEmpty() && tournament != null && !tournament.isLocked()));
 
-        // Configure available grid with multi-selection
+        // Configure available grid with multi-selection; players are fetched page by page as the user scrolls
         availableGrid.setColumns("id");
-        availableGrid.addColumn(Player::getFullName).setHeader("Available Players");
+        availableGrid.addColumn(Player::getFullName).setHeader("Available Players")
+                .setSortProperty("lastName", "firstName");
         availableGrid.setSelectionMode(Grid.SelectionMode.MULTI);
+        availableGrid.setItems(query -> playerService.getAvailablePlayers(tournamentId, availableFilter.getValue(),
+                        VaadinSpringDataHelpers.toSpringPageRequest(query)).stream())
+                .setIdentifierProvider(Player::getId);
+        availableFilter.setPlaceholder("Search available players by name");
+        availableFilter.setClearButtonVisible(true);
+        availableFilter.setValueChangeMode(ValueChangeMode.LAZY);
+        availableFilter.addValueChangeListener(event -> availableGrid.getDataProvider().refreshAll());
         availableGrid.addSelectionListener(event -> {
             if (tournament != null) {
                 addButton.setEnabled(!event.getAllSelectedItems().isEmpty() && !tournament.isLocked());
@@ -71,9 +107,17 @@ public class PlayerView extends VerticalLayout implements HasUrlParameter<Long>
         addButton.setEnabled(false);
         startTournamentButton.addClickListener(event -> startTournament());
 
+        // Configure import: CSV with first and last name columns, or a JSON array of players
+        importUpload.setAcceptedFileTypes(".csv", ".json", "text/csv", "application/json");
+        importUpload.setDropLabel(new Span("Import players from a CSV or JSON file"));
+        importUpload.addSucceededListener(event -> importPlayers(event.getFileName()));
+        importProgress.setIndeterminate(true);
+        importProgress.setVisible(false);
+
         // Layout: Include addButton below availableGrid
-        add(assignedGrid, availableGrid, addButton,
-                new HorizontalLayout(firstName, lastName, saveButton, deleteButton, backButton, startTournamentButton));
+        add(assignedGrid, availableFilter, availableGrid, addButton,
+                new HorizontalLayout(firstName, lastName, saveButton, deleteButton, backButton, startTournamentButton),
+                new HorizontalLayout(importUpload, enrollImported), importProgress, importStatus);
     }
 
     @Override
@@ -105,16 +149,17 @@ public class PlayerView extends VerticalLayout implements HasUrlParameter<Long>
     }
 
     private void deletePlayer() {
-        Player selected = assignedGrid.asSingleSelect().getValue();
-        if (selected != null) {
+        Set<Player> selectedPlayers = assignedGrid.getSelectedItems();
+        if (!selectedPlayers.isEmpty()) {
             try {
-                playerService.removePlayerFromTournament(selected.getId(), tournamentId);
+                tournamentService.removePlayersFromTournament(tournamentId,
+                        selectedPlayers.stream().map(Player::getId).toList());
                 refreshGrids();
-                Notification.show("Player removed from tournament");
+                Notification.show("Players removed from tournament");
                 updateButtonStates();
                 clearForm();
                 // Clear selection after removing
-                assignedGrid.asSingleSelect().clear();
+                assignedGrid.deselectAll();
             } catch (Exception e) {
                 Notification.show("Error removing player: " + e.getMessage());
             }
@@ -125,10 +170,9 @@ public class PlayerView extends VerticalLayout implements HasUrlParameter<Long>
         Set<Player> selectedPlayers = availableGrid.getSelectedItems();
         if (!selectedPlayers.isEmpty()) {
             try {
-                for (Player player : selectedPlayers) {
-                    playerService.addPlayerToTournament(player.getId(), tournamentId);
-                }
-                Notification.show("Players added to tournament");
+                int enrolled = tournamentService.addPlayersToTournament(tournamentId,
+                        selectedPlayers.stream().map(Player::getId).toList());
+                Notification.show(enrolled + " players added to tournament");
                 refreshGrids();
                 updateButtonStates();
                 // Clear selection after adding
@@ -139,12 +183,77 @@ public class PlayerView extends VerticalLayout implements HasUrlParameter<Long>
         }
     }
 
+    /**
+     * Run the import in the background and show its progress; the upload itself is already stored in a temporary file
+     */
+    private void importPlayers(String fileName) {
+        UI ui = UI.getCurrent();
+        PlayerImportService.Format format = fileName.toLowerCase().endsWith(".json")
+                ? PlayerImportService.Format.JSON : PlayerImportService.Format.CSV;
+        Long enrollInto = enrollImported.getValue() && !tournament.isLocked() ? tournamentId : null;
+        importUpload.setVisible(false);
+        importProgress.setVisible(true);
+        importStatus.setText("Importing " + fileName + "...");
+
+        taskExecutor.execute(() -> {
+            try (InputStream input = importBuffer.getInputStream()) {
+                PlayerImportResult result = playerImportService.importPlayers(input, format, enrollInto,
+                        progress -> {
+                            String text = importSummary(progress);
+                            ui.access(() -> importStatus.setText(text));
+                        });
+                ui.access(() -> {
+                    importStatus.setText(importSummary(result) + errorSummary(result));
+                    Notification.show("Import finished");
+                    refreshGrids();
+                    updateButtonStates();
+                });
+            } catch (Exception e) {
+                ui.access(() -> {
+                    importStatus.setText("");
+                    Notification.show("Error importing players: " + e.getMessage());
+                    // Chunks saved before the error are kept
+                    refreshGrids();
+                    updateButtonStates();
+                });
+            } finally {
+                importBuffer.getFileData().getFile().delete();
+                ui.access(() -> {
+                    importProgress.setVisible(false);
+                    importUpload.clearFileList();
+                    importUpload.setVisible(true);
+                });
+            }
+        });
+    }
+
+    private static String importSummary(PlayerImportResult result) {
+        return result.getRowsRead() + " rows read, " + result.getCreated() + " players created, "
+                + result.getDuplicates() + " already existed, " + result.getEnrolled() + " added to the tournament, "
+                + result.getErrorCount() + " errors";
+    }
+
+    private static String errorSummary(PlayerImportResult result) {
+        StringBuilder summary = new StringBuilder();
+        result.getErrors().stream().limit(5).forEach(error ->
+                summary.append("; line ").append(error.getLine()).append(": ").append(error.getMessage()));
+        if (result.getErrorCount() > 5) {
+            summary.append("; ...");
+        }
+        return summary.toString();
+    }
+
     private void startTournament() {
         try {
             tournament.setLocked(true);
             tournamentService.updateTournament(tournament.getId(), tournament);
             Notification.show("Tournament started!");
             getUI().ifPresent(ui -> ui.navigate("bracket/" + tournamentId));
+        } catch (UpdateConflictException | OptimisticLockingFailureException e) {
+            // Someone changed the players since this page loaded them
+            updateButtonStates();
+            refreshGrids();
+            Notification.show("The players of this tournament were just changed. Please check them and start again.");
         } catch (Exception e) {
             Notification.show("Error starting tournament: " + e.getMessage());
         }
@@ -157,7 +266,7 @@ public class PlayerView extends VerticalLayout implements HasUrlParameter<Long>
         
         boolean isLocked = tournament.isLocked();
         saveButton.setEnabled(!isLocked);
-        deleteButton.setEnabled(!isLocked && assignedGrid.asSingleSelect().getValue() != null);
+        deleteButton.setEnabled(!isLocked && !assignedGrid.getSelectedItems().isEmpty());
         addButton.setEnabled(!isLocked && !availableGrid.getSelectedItems().isEmpty());
         int playerCount = tournament.getPlayers().size();
         boolean canStart = playerCount >= 4 && playerCount % 2 == 0;
@@ -178,7 +287,6 @@ public class PlayerView extends VerticalLayout implements HasUrlParameter<Long>
                 .orElseThrow(() -> new IllegalArgumentException("Tournament not found"));
         
         assignedGrid.setItems(tournament.getPlayers());
-        availableGrid.setItems(playerService.getAvailablePlayers(tournamentId));
         
         // Force UI refresh
         assignedGrid.getDataProvider().refreshAll();
@@ -0,0 +1,42 @@
+-- Schema as Hibernate created it before migrations were introduced.
+-- Databases that already have these tables are baselined at this version and skip it.
+create table players (
+    id bigint generated by default as identity,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    primary key (id)
+);
+
+create table tournaments (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    start_date date,
+    end_date date,
+    locked boolean not null,
+    primary key (id)
+);
+
+create table tournament_player (
+    tournament_id bigint not null,
+    player_id bigint not null,
+    primary key (tournament_id, player_id),
+    constraint fk_tournament_player_tournament foreign key (tournament_id) references tournaments (id),
+    constraint fk_tournament_player_player foreign key (player_id) references players (id)
+);
+
+create table matches (
+    id bigint generated by default as identity,
+    tournament_id bigint not null,
+    bracket_type varchar(255) not null,
+    round integer not null,
+    player1_id bigint not null,
+    player2_id bigint not null,
+    winner_id bigint,
+    player1_points integer,
+    player2_points integer,
+    primary key (id),
+    constraint fk_matches_tournament foreign key (tournament_id) references tournaments (id),
+    constraint fk_matches_player1 foreign key (player1_id) references players (id),
+    constraint fk_matches_player2 foreign key (player2_id) references players (id),
+    constraint fk_matches_winner foreign key (winner_id) references players (id)
+);
@@ -0,0 +1,10 @@
+-- Every MatchRepository query filters on the tournament, most also on bracket type and round.
+-- The bracket query reads in this order, so it needs no sort.
+create index if not exists idx_matches_tournament_bracket_round on matches (tournament_id, bracket_type, round, id);
+
+-- The primary key (tournament_id, player_id) serves lookups by tournament; this one the tournaments of a player
+create index if not exists idx_tournament_player_player on tournament_player (player_id, tournament_id);
+
+-- One player per name. Serves the duplicate check and the name lookups of the import, and
+-- the available players page, which is ordered by last name, then first name.
+alter table players add constraint uk_players_name unique (last_name, first_name);
@@ -0,0 +1,4 @@
+-- Optimistic locking of tournaments and matches, existing rows start at version 0.
+-- A database that was run with ddl-auto=update after the columns came may have them already.
+alter table tournaments add column if not exists version bigint default 0 not null;
+alter table matches add column if not exists version bigint default 0 not null;
@@ -0,0 +1,3 @@
+-- Match ids are handed out 50 at a time, see Match.id. Until V5 the sequence may be
+-- behind the ids the identity column handed out.
+create sequence if not exists matches_seq start with 1 increment by 50;
@@ -0,0 +1,6 @@
+-- Matches used identity ids before they moved to matches_seq. The ids now only come from the sequence.
+ALTER TABLE matches ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- If the sequence is behind the highest existing id, move it forward; once it is ahead this does nothing.
+SELECT setval('matches_seq', (SELECT MAX(id) FROM matches))
+WHERE (SELECT last_value FROM matches_seq) < (SELECT COALESCE(MAX(id), 0) FROM matches);
@@ -0,0 +1,62 @@
+package com.cobaltkeep.tournament;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that the hot repository queries use the indexes created by the migrations.
+ * The statements have the shape of the SQL Hibernate generates for each repository method.
+ * The plans come from the in-memory database, which names the index it reads in the plan.
+ * It gets its own database with enough data for the planner to tell the indexes apart.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:index-usage;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@ActiveProfiles("h2")
+@Sql(scripts = "/index-usage-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class IndexUsageTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void matchesOfARound() {
+        // findByTournamentAndBracketTypeAndRound, findByTournamentAndBracketType
+        assertUsesIndex("SELECT * FROM matches WHERE tournament_id = 1 AND bracket_type = 'main' AND round = 0",
+                "idx_matches_tournament_bracket_round");
+        assertUsesIndex("SELECT * FROM matches WHERE tournament_id = 1 AND bracket_type = 'main'",
+                "idx_matches_tournament_bracket_round");
+    }
+
+    // Queries that only filter on the tournament are checked in PostgresIndexUsageTests: H2 creates an index
+    // for every foreign key and always reads that one, whether or not the migrations added theirs.
+
+    @Test
+    void playerByName() {
+        // findByFirstNameAndLastName and the name lookup of the import
+        assertUsesIndex("SELECT * FROM players WHERE first_name = 'Anna' AND last_name = 'Berg'", "uk_players_name");
+        assertUsesIndex("SELECT id, first_name, last_name FROM players " +
+                "WHERE first_name IN ('Anna', 'Ben') AND last_name IN ('Berg', 'Wolf')", "uk_players_name");
+    }
+
+    @Test
+    void enrollments() {
+        // Tournaments of a player, the inverse side of Tournament.players
+        assertUsesIndex("SELECT * FROM tournament_player WHERE player_id = 1", "idx_tournament_player_player");
+        // The NOT EXISTS of enrollPlayers and findAvailablePlayers
+        assertUsesIndex("SELECT 1 FROM tournament_player tp WHERE tp.tournament_id = 1 AND tp.player_id = 2",
+                "primary_key");
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        assertThat(explain(sql)).as("plan of %s", sql).containsIgnoringCase(index);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.cobaltkeep.tournament;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.service.MatchService;
+import com.cobaltkeep.tournament.service.RoundAdvancementService;
+import com.cobaltkeep.tournament.service.TournamentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database the way production ones get upgraded: it has the schema from before the migrations,
+ * with data and identity match ids, and no migration history. Flyway baselines it at version 1 and runs the
+ * later versions on the existing rows, then the application has to start against it and keep writing.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class MigrationUpgradeTests {
+
+    private static final String URL = "jdbc:h2:mem:pre-migration;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE";
+    // Higher than anything the new sequence would hand out at first
+    private static final long HIGHEST_MATCH_ID = 120;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private RoundAdvancementService roundAdvancementService;
+
+    @DynamicPropertySource
+    static void databaseFromBeforeTheMigrations(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/common/V1__baseline.sql"));
+            statement.execute("INSERT INTO players (first_name, last_name) VALUES " +
+                    "('Anna', 'Berg'), ('Ben', 'Wolf'), ('Carl', 'Roth'), ('Dora', 'Lang')");
+            statement.execute("INSERT INTO tournaments (name, start_date, end_date, locked) VALUES ('Open', DATE '2024-05-01', DATE '2024-05-02', TRUE)");
+            statement.execute("INSERT INTO tournament_player (tournament_id, player_id) SELECT 1, id FROM players");
+            statement.execute("INSERT INTO matches (tournament_id, bracket_type, round, player1_id, player2_id, winner_id, player1_points, player2_points) " +
+                    "VALUES (1, 'main', 0, 1, 2, 1, 11, 7)");
+            statement.execute("INSERT INTO matches (id, tournament_id, bracket_type, round, player1_id, player2_id, winner_id, player1_points, player2_points) " +
+                    "VALUES (" + HIGHEST_MATCH_ID + ", 1, 'main', 0, 3, 4, 4, 5, 11)");
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void baselinedAtVersionOneAndMigratedFromThere() {
+        List<String> history = jdbcTemplate.queryForList("SELECT \"version\" || ' ' || \"type\" FROM \"flyway_schema_history\" " +
+                "WHERE \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class);
+
+        assertThat(history).containsExactly("1 BASELINE", "2 SQL", "3 SQL", "4 SQL", "5 SQL");
+    }
+
+    @Test
+    void existingRowsStartAtVersionZero() {
+        assertThat(tournamentService.getTournamentById(1L).orElseThrow().getVersion()).isZero();
+
+        Match updated = matchService.updateMatchPoints(HIGHEST_MATCH_ID, 0L, 6, 11);
+
+        assertThat(updated.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void newMatchesGetIdsPastTheExistingOnes() {
+        List<Match> nextRound = roundAdvancementService.advance(1L, 0);
+
+        assertThat(nextRound).hasSize(2).allSatisfy(match -> assertThat(match.getId()).isGreaterThan(HIGHEST_MATCH_ID));
+    }
+}
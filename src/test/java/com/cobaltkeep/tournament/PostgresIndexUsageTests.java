@@ -0,0 +1,63 @@
+package com.cobaltkeep.tournament;
+
+import com.cobaltkeep.tournament.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The EXPLAIN checks of {@link IndexUsageTests} for the queries that only filter on the tournament,
+ * which H2 serves with its own foreign key index. Runs against PostgreSQL: mvn test -Ppostgres
+ * <p>
+ * Sequential scans are discouraged for the transaction, so the plans show whether an index can serve
+ * the query at all, independent of how many rows the database happens to hold. Without the index from
+ * the migrations the matches table has no index on the tournament and the plan falls back to a scan.
+ */
+@SpringBootTest
+@Tag("postgres")
+@Transactional
+class PostgresIndexUsageTests {
+
+    private static final String INDEX = "idx_matches_tournament_bracket_round";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void discourageSequentialScans() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void matchesOfATournament() {
+        // findByTournament, deleteByTournament
+        assertUsesIndex("SELECT * FROM matches WHERE tournament_id = 1");
+    }
+
+    @Test
+    void bracket() {
+        // findBracketByTournamentId
+        assertUsesIndex("SELECT m.*, p1.*, p2.*, w.*, t.* FROM matches m " +
+                "JOIN players p1 ON p1.id = m.player1_id JOIN players p2 ON p2.id = m.player2_id " +
+                "LEFT JOIN players w ON w.id = m.winner_id JOIN tournaments t ON t.id = m.tournament_id " +
+                "WHERE m.tournament_id = 1 ORDER BY m.bracket_type, m.round, m.id");
+    }
+
+    @Test
+    void standings() {
+        assertUsesIndex(MatchRepository.RANKED_STANDINGS.replace(":tournamentId", "1"));
+    }
+
+    private void assertUsesIndex(String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        assertThat(String.join("\n", plan)).as("plan of %s", sql).contains(INDEX);
+    }
+}
@@ -0,0 +1,185 @@
+package com.cobaltkeep.tournament;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.metrics.StatementCountingListener;
+import com.cobaltkeep.tournament.service.BracketService;
+import com.cobaltkeep.tournament.service.MatchService;
+import com.cobaltkeep.tournament.service.PlayerService;
+import com.cobaltkeep.tournament.service.RoundAdvancementService;
+import com.cobaltkeep.tournament.service.ScoreSubmission;
+import com.cobaltkeep.tournament.service.TournamentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement budgets of the main use cases, on the in-memory database. Every tournament has enough
+ * players and matches that a query per player or per match goes over the budget, so a change that
+ * brings back an N+1 fails here. Counts Hibernate statements on the test thread, batches count once.
+ * The second-level and query caches are cleared before every use case, budgets are for a cold cache.
+ * <p>
+ * When a change legitimately needs more statements, raise the budget in the same change.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class QueryCountTests {
+
+    private static final int PLAYERS = 16;
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private BracketService bracketService;
+
+    @Autowired
+    private RoundAdvancementService roundAdvancementService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Tournament tournament;
+
+    @BeforeEach
+    void createTournament() {
+        tournament = tournamentService.createTournament(new Tournament("Query count " + names.incrementAndGet(),
+                LocalDate.now(), LocalDate.now().plusDays(1)));
+        tournamentService.addPlayersToTournament(tournament.getId(), createPlayers(PLAYERS));
+    }
+
+    @Test
+    void openBracket() {
+        roundAdvancementService.createFirstRound(tournament.getId());
+
+        // The tournament with its players, then every match with its players
+        assertStatements("open bracket", 2, () -> bracketService.loadSnapshot(tournament.getId()));
+        assertStatements("open bracket again", 0, () -> bracketService.loadSnapshot(tournament.getId()));
+    }
+
+    @Test
+    void updatePoints() {
+        Match match = roundAdvancementService.createFirstRound(tournament.getId()).get(0);
+
+        // Load the match with its players, update it
+        assertStatements("update points", 2, () ->
+                matchService.updateMatchPoints(match.getId(), match.getVersion(), 11, 7));
+    }
+
+    @Test
+    void submitScores() {
+        List<Match> round = roundAdvancementService.createFirstRound(tournament.getId());
+
+        // Load all matches, one update batch
+        assertStatements("submit scores", 2, () -> matchService.submitScores(scores(round)));
+    }
+
+    @Test
+    void advanceRound() {
+        List<Match> round = roundAdvancementService.createFirstRound(tournament.getId());
+        matchService.submitScores(scores(round));
+
+        // Lock, matches, one insert batch
+        assertStatements("advance round", 3, () -> roundAdvancementService.advance(tournament.getId(), 0));
+        assertStatements("advance round again", 2, () -> roundAdvancementService.advance(tournament.getId(), 0));
+    }
+
+    @Test
+    void createFirstRound() {
+        // Lock, matches, tournament with players, one insert batch
+        assertStatements("create first round", 4, () -> roundAdvancementService.createFirstRound(tournament.getId()));
+    }
+
+    @Test
+    void listTournaments() {
+        for (int i = 0; i < 5; i++) {
+            createTournament();
+        }
+
+        // One page and the total count
+        assertStatements("list tournament summaries", 2, () ->
+                tournamentService.getTournamentSummaries(PageRequest.of(0, 3)));
+        assertStatements("list tournaments", 1, () -> tournamentService.getAllTournaments());
+        assertStatements("list tournaments with players", 1, () -> tournamentService.getAllTournamentsWithPlayers()
+                .forEach(tournament -> tournament.getPlayers().size()));
+    }
+
+    @Test
+    void cachedTournamentReads() {
+        tournamentService.getTournamentById(tournament.getId());
+        tournamentService.getAllTournaments();
+
+        // Query results, tournaments, enrollments and players all come from the second-level cache
+        assertCachedStatements("get tournament with players", 0, () -> tournamentService.getTournamentById(tournament.getId()));
+        assertCachedStatements("list tournaments", 0, () -> tournamentService.getAllTournaments());
+
+        // The enrollment invalidates the cached query and the tournament's player ids
+        tournamentService.addPlayersToTournament(tournament.getId(), createPlayers(1));
+        assertCachedStatements("get tournament after enrollment", 1, () ->
+                assertThat(tournamentService.getTournamentById(tournament.getId()).orElseThrow().getPlayers()).hasSize(PLAYERS + 1));
+    }
+
+    @Test
+    void addPlayers() {
+        List<Long> playerIds = createPlayers(PLAYERS);
+
+        // Version increment that also checks the lock, one enrollment statement
+        assertStatements("enroll players", 2, () -> tournamentService.addPlayersToTournament(tournament.getId(), playerIds));
+        // Duplicate name check, player insert, tournament with players, tournament version, enrollment insert
+        assertStatements("create player", 5, () -> playerService.createPlayer(newPlayer(), tournament.getId()));
+    }
+
+    private void assertStatements(String useCase, int budget, Runnable action) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        assertCachedStatements(useCase, budget, action);
+    }
+
+    private static void assertCachedStatements(String useCase, int budget, Runnable action) {
+        StatementCountingListener.reset();
+        action.run();
+        long statements = StatementCountingListener.count();
+        assertThat(statements)
+                .as("%s ran %d statements, its budget is %d", useCase, statements, budget)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private List<Long> createPlayers(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(playerService.createPlayer(newPlayer(), null).getId());
+        }
+        return ids;
+    }
+
+    private static Player newPlayer() {
+        return new Player("Player", "Query count " + names.incrementAndGet());
+    }
+
+    private static List<ScoreSubmission> scores(List<Match> matches) {
+        List<ScoreSubmission> scores = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            scores.add(new ScoreSubmission(match.getId(), 11, 7));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,151 @@
+package com.cobaltkeep.tournament.controller;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.service.MatchService;
+import com.cobaltkeep.tournament.service.PlayerService;
+import com.cobaltkeep.tournament.service.RoundAdvancementService;
+import com.cobaltkeep.tournament.service.TournamentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/matches/scores: one result per item, in the order sent
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class MatchControllerTests {
+
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private RoundAdvancementService roundAdvancementService;
+
+    private List<Match> round;
+
+    @BeforeEach
+    void createRound() {
+        Tournament tournament = tournamentService.createTournament(new Tournament("Scores " + names.incrementAndGet(),
+                LocalDate.now(), LocalDate.now().plusDays(1)));
+        List<Long> playerIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            playerIds.add(playerService.createPlayer(new Player("Player", "Scores " + names.incrementAndGet()), null).getId());
+        }
+        tournamentService.addPlayersToTournament(tournament.getId(), playerIds);
+        round = roundAdvancementService.createFirstRound(tournament.getId());
+    }
+
+    @Test
+    void updated() throws Exception {
+        Match match = round.get(0);
+
+        submit("[{\"matchId\": " + match.getId() + ", \"player1Points\": 11, \"player2Points\": 7}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[0].winnerId").value(match.getPlayer1().getId()))
+                .andExpect(jsonPath("$[0].version").value(match.getVersion() + 1));
+
+        Match saved = matchService.findMatch(match.getId()).orElseThrow();
+        assertThat(saved.getPlayer1Points()).isEqualTo(11);
+        assertThat(saved.getPlayer2Points()).isEqualTo(7);
+    }
+
+    @Test
+    void notFound() throws Exception {
+        submit("[{\"matchId\": -1, \"player1Points\": 11, \"player2Points\": 7}, {\"player1Points\": 11, \"player2Points\": 7}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[0].matchId").value(-1))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void invalid() throws Exception {
+        Match match = round.get(0);
+
+        submit("[{\"matchId\": " + match.getId() + ", \"player1Points\": -1, \"player2Points\": 7}," +
+                " {\"matchId\": " + match.getId() + ", \"player1Points\": 11}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("INVALID"))
+                .andExpect(jsonPath("$[1].status").value("INVALID"));
+
+        assertThat(matchService.findMatch(match.getId()).orElseThrow().getPlayer1Points()).isNull();
+    }
+
+    @Test
+    void conflict() throws Exception {
+        Match match = round.get(0);
+        matchService.updateMatchPoints(match.getId(), 5, 11);
+
+        submit("[{\"matchId\": " + match.getId() + ", \"player1Points\": 11, \"player2Points\": 7, \"version\": " + match.getVersion() + "}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[0].version").value(match.getVersion() + 1));
+
+        assertThat(matchService.findMatch(match.getId()).orElseThrow().getPlayer1Points()).isEqualTo(5);
+    }
+
+    @Test
+    void failedItemsDoNotAffectTheOthers() throws Exception {
+        Match first = round.get(0);
+        Match second = round.get(1);
+
+        submit("[{\"matchId\": " + first.getId() + ", \"player1Points\": 11, \"player2Points\": 7}," +
+                " {\"matchId\": -1, \"player1Points\": 11, \"player2Points\": 7}," +
+                " {\"matchId\": " + second.getId() + ", \"player1Points\": 3, \"player2Points\": 11, \"version\": " + second.getVersion() + "}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[2].status").value("UPDATED"))
+                .andExpect(jsonPath("$[2].winnerId").value(second.getPlayer2().getId()));
+    }
+
+    @Test
+    void batchOverTheLimit() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 1001; i++) {
+            body.append(i > 0 ? "," : "").append("{\"matchId\": ").append(round.get(0).getId())
+                    .append(", \"player1Points\": 11, \"player2Points\": 7}");
+        }
+        body.append(']');
+
+        submit(body.toString()).andExpect(status().isPayloadTooLarge());
+
+        assertThat(matchService.findMatch(round.get(0).getId()).orElseThrow().getPlayer1Points()).isNull();
+    }
+
+    private ResultActions submit(String json) throws Exception {
+        return mockMvc.perform(post("/api/matches/scores").contentType(MediaType.APPLICATION_JSON).content(json));
+    }
+}
@@ -0,0 +1,195 @@
+package com.cobaltkeep.tournament.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs groups of concurrent clients for a fixed time and records the latency of every call.
+ * Each client repeatedly picks one of its group's operations by weight, so a group can model e.g.
+ * spectators who mostly read. Clients are virtual threads, so the driver itself is never the bottleneck.
+ */
+final class LoadDriver {
+
+    private LoadDriver() {}
+
+    /**
+     * One kind of request
+     *
+     * @param request one call, returning false or throwing if it failed
+     */
+    record Operation(String name, int weight, Callable<Boolean> request) {}
+
+    /**
+     * Clients that all behave the same way
+     */
+    record Workload(String name, int clients, List<Operation> operations) {}
+
+    /**
+     * Run a single request from many clients
+     */
+    static Result run(String name, int clients, Duration warmup, Duration duration, Callable<Boolean> request)
+            throws Exception {
+        return run(List.of(new Workload(name, clients, List.of(new Operation(name, 1, request)))), warmup, duration).get(0);
+    }
+
+    /**
+     * Run all workloads at the same time
+     *
+     * @return one result per operation, in the order of the workloads and their operations
+     */
+    static List<Result> run(List<Workload> workloads, Duration warmup, Duration duration) throws Exception {
+        runFor(workloads, warmup);
+        long start = System.nanoTime();
+        List<Recorder> recorders = runFor(workloads, duration);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Result> results = new ArrayList<>();
+        int index = 0;
+        for (Workload workload : workloads) {
+            for (Operation operation : workload.operations()) {
+                results.add(recorders.get(index++).toResult(workload, operation, seconds));
+            }
+        }
+        return results;
+    }
+
+    private static List<Recorder> runFor(List<Workload> workloads, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Recorder[]>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Workload workload : workloads) {
+                List<Operation> operations = workload.operations();
+                int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+                for (int i = 0; i < workload.clients(); i++) {
+                    futures.add(executor.submit(() -> {
+                        Recorder[] recorders = new Recorder[operations.size()];
+                        Arrays.setAll(recorders, j -> new Recorder());
+                        while (System.nanoTime() < deadline) {
+                            int operation = pick(operations, ThreadLocalRandom.current().nextInt(totalWeight));
+                            long start = System.nanoTime();
+                            boolean ok;
+                            try {
+                                ok = operations.get(operation).request().call();
+                            } catch (Exception e) {
+                                ok = false;
+                            }
+                            recorders[operation].record(System.nanoTime() - start, ok);
+                        }
+                        return recorders;
+                    }));
+                }
+            }
+        }
+
+        // Merge the clients' recorders per operation
+        int operationCount = workloads.stream().mapToInt(workload -> workload.operations().size()).sum();
+        List<Recorder> merged = new ArrayList<>(operationCount);
+        for (int i = 0; i < operationCount; i++) {
+            merged.add(new Recorder());
+        }
+        int futureIndex = 0;
+        int offset = 0;
+        for (Workload workload : workloads) {
+            for (int i = 0; i < workload.clients(); i++) {
+                Recorder[] recorders = futures.get(futureIndex++).get();
+                for (int j = 0; j < recorders.length; j++) {
+                    merged.get(offset + j).addAll(recorders[j]);
+                }
+            }
+            offset += workload.operations().size();
+        }
+        return merged;
+    }
+
+    private static int pick(List<Operation> operations, int randomWeight) {
+        for (int i = 0; i < operations.size(); i++) {
+            randomWeight -= operations.get(i).weight();
+            if (randomWeight < 0) {
+                return i;
+            }
+        }
+        return operations.size() - 1;
+    }
+
+    private static final class Recorder {
+        private long[] latencies = new long[256];
+        private int count;
+        private long errors;
+
+        void record(long latency, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+        void addAll(Recorder other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(count + other.count, latencies.length * 2));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        Result toResult(Workload workload, Operation operation, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            String name = workload.operations().size() == 1 ? workload.name() : workload.name() + " " + operation.name();
+            return new Result(name, workload.clients(), sorted, errors, seconds);
+        }
+    }
+
+    static final class Result {
+        private final String name;
+        private final int clients;
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final double seconds;
+
+        Result(String name, int clients, long[] sortedLatencies, long errors, double seconds) {
+            this.name = name;
+            this.clients = clients;
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.seconds = seconds;
+        }
+
+        String getName() { return name; }
+        long getRequests() { return sortedLatencies.length; }
+        long getErrors() { return errors; }
+        double getThroughput() { return sortedLatencies.length / seconds; }
+
+        /**
+         * @return the latency at the given percentile in milliseconds
+         */
+        double percentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+
+        static String header() {
+            return String.format("%-40s %8s %10s %8s %10s %9s %9s %9s", "scenario", "clients", "requests", "errors",
+                    "req/s", "p50 ms", "p95 ms", "p99 ms");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %8d %10d %8d %10.1f %9.2f %9.2f %9.2f", name, clients, getRequests(), errors,
+                    getThroughput(), percentile(50), percentile(95), percentile(99));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.cobaltkeep.tournament.load;
+
+import com.cobaltkeep.tournament.TournamentApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the whole application on a random port for benchmarks and load tests.
+ * <p>
+ * By default each run gets its own in-memory H2 database. To use a local database instead, e.g. a scratch
+ * PostgreSQL, pass -Dload.jdbc-url, -Dload.jdbc-user and -Dload.jdbc-password. Extra profiles and
+ * properties, e.g. to compare a fix, go in -Dload.profiles=virtual and -Dload.properties=key=value,key=value.
+ */
+final class LoadTestApplication {
+
+    private LoadTestApplication() {}
+
+    static ConfigurableApplicationContext start(String databaseName, String... profiles) {
+        String jdbcUrl = System.getProperty("load.jdbc-url");
+        List<String> activeProfiles = new ArrayList<>();
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.main.keep-alive=false",
+                "spring.datasource.hikari.maximum-pool-size=20",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + LoadTestStatementInspector.class.getName(),
+                "logging.level.root=WARN"));
+        if (jdbcUrl == null) {
+            activeProfiles.add("h2");
+            properties.add("spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        } else {
+            properties.add("spring.datasource.url=" + jdbcUrl);
+            properties.add("spring.datasource.username=" + System.getProperty("load.jdbc-user", "postgres"));
+            properties.add("spring.datasource.password=" + System.getProperty("load.jdbc-password", ""));
+        }
+        activeProfiles.addAll(Arrays.asList(profiles));
+        activeProfiles.addAll(split(System.getProperty("load.profiles", "")));
+        properties.addAll(split(System.getProperty("load.properties", "")));
+
+        return new SpringApplicationBuilder(TournamentApplication.class)
+                .profiles(activeProfiles.toArray(String[]::new))
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    static List<String> split(String values) {
+        return Arrays.stream(values.split(",")).map(String::trim).filter(value -> !value.isEmpty()).toList();
+    }
+}
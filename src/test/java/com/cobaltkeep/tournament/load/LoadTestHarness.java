@@ -0,0 +1,196 @@
+package com.cobaltkeep.tournament.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end load test: many spectators reading tournaments and scores while a few admins enter scores.
+ * For every combination of tournament size and spectator count it boots the application on a fresh
+ * database, generates the data, and reports throughput, latency percentiles and database statements,
+ * marking the runs where the p99 latency or the error rate is above the limit.
+ * <p>
+ * Run with {@code mvn test -Pload-test}. Settings, as system properties:
+ * <ul>
+ *     <li>load.players: players per tournament, comma separated (default 64,512)</li>
+ *     <li>load.spectators: concurrent spectators, comma separated (default 50,200)</li>
+ *     <li>load.tournaments (default 20), load.rounds: completed rounds (default 2), load.admins (default 4)</li>
+ *     <li>load.seconds: measured time per run (default 20), load.max-p99-ms (default 1000)</li>
+ *     <li>benchmark.statement-latency-ms: simulated database round trip (default 2)</li>
+ * </ul>
+ * To compare a fix, run once without and once with it, e.g. -Dload.profiles=virtual or
+ * -Dload.properties=tournament.scores.write-behind.enabled=true. See {@link LoadTestApplication} to use a local database.
+ */
+@Tag("loadtest")
+class LoadTestHarness {
+
+    private static final List<Integer> PLAYER_COUNTS = integers("load.players", "64,512");
+    private static final List<Integer> SPECTATOR_COUNTS = integers("load.spectators", "50,200");
+    private static final int TOURNAMENTS = Integer.getInteger("load.tournaments", 20);
+    private static final int COMPLETED_ROUNDS = Integer.getInteger("load.rounds", 2);
+    private static final int ADMINS = Integer.getInteger("load.admins", 4);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.seconds", 20));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final double MAX_P99_MS = Integer.getInteger("load.max-p99-ms", 1000);
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final int SCORES_PER_REQUEST = 8;
+    private static final int CALIBRATION_REQUESTS = 20;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void findBreakingPoint() throws Exception {
+        List<String> summary = new ArrayList<>();
+        summary.add(String.format("%10s %11s %10s %9s %8s %10s  %s", "players", "spectators", "req/s", "p99 ms",
+                "errors", "stmts/s", "verdict"));
+
+        for (int players : PLAYER_COUNTS) {
+            try (ConfigurableApplicationContext context = LoadTestApplication.start("load-" + players)) {
+                long start = System.nanoTime();
+                SyntheticDataGenerator.Data data = new SyntheticDataGenerator(context)
+                        .generate(TOURNAMENTS, players, COMPLETED_ROUNDS);
+                System.out.printf("%nGenerated %d tournaments with %d players and %d matches in %d ms%n", TOURNAMENTS,
+                        players, data.matchIds().size(), (System.nanoTime() - start) / 1_000_000);
+
+                Traffic traffic = new Traffic(LoadTestApplication.baseUrl(context), data, context.getBean(ObjectMapper.class));
+                List<Double> statementsPerRequest = calibrate(traffic.workloads(1));
+
+                for (int spectators : SPECTATOR_COUNTS) {
+                    long statementsBefore = LoadTestStatementInspector.statementCount();
+                    List<LoadDriver.Result> results = LoadDriver.run(traffic.workloads(spectators), WARMUP, DURATION);
+                    double statementsPerSecond = (LoadTestStatementInspector.statementCount() - statementsBefore)
+                            / (double) (DURATION.plus(WARMUP).toSeconds());
+
+                    System.out.printf("%n%d players per tournament, %d spectators, %d admins%n", players, spectators, ADMINS);
+                    System.out.println(LoadDriver.Result.header() + String.format(" %11s", "stmts/req"));
+                    long requests = 0;
+                    long errors = 0;
+                    double throughput = 0;
+                    double worstP99 = 0;
+                    for (int i = 0; i < results.size(); i++) {
+                        LoadDriver.Result result = results.get(i);
+                        System.out.println(result + String.format(" %11.1f", statementsPerRequest.get(i)));
+                        requests += result.getRequests();
+                        errors += result.getErrors();
+                        throughput += result.getThroughput();
+                        worstP99 = Math.max(worstP99, result.percentile(99));
+                    }
+                    boolean saturated = worstP99 > MAX_P99_MS || errors > requests * MAX_ERROR_RATE;
+                    summary.add(String.format("%10d %11d %10.1f %9.1f %8d %10.0f  %s", players, spectators, throughput,
+                            worstP99, errors, statementsPerSecond, saturated ? "SATURATED" : "ok"));
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("Limits: p99 <= %.0f ms, errors <= %.0f%%%n", MAX_P99_MS, MAX_ERROR_RATE * 100);
+        summary.forEach(System.out::println);
+        System.out.println();
+    }
+
+    /**
+     * Statements per request of every operation, measured one request at a time on an idle application.
+     * Under load the statement counter is shared by all requests, so it can only give a total.
+     */
+    private static List<Double> calibrate(List<LoadDriver.Workload> workloads) throws Exception {
+        List<Double> result = new ArrayList<>();
+        for (LoadDriver.Workload workload : workloads) {
+            for (LoadDriver.Operation operation : workload.operations()) {
+                long before = LoadTestStatementInspector.statementCount();
+                for (int i = 0; i < CALIBRATION_REQUESTS; i++) {
+                    operation.request().call();
+                }
+                result.add((LoadTestStatementInspector.statementCount() - before) / (double) CALIBRATION_REQUESTS);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The requests spectators and admins send
+     */
+    private final class Traffic {
+        private final String baseUrl;
+        private final SyntheticDataGenerator.Data data;
+        private final ObjectMapper objectMapper;
+        private final AtomicInteger nextAdmin = new AtomicInteger();
+        // Every admin scores the open matches of their own tournaments, like referees at different tables
+        private final ThreadLocal<Integer> admin = ThreadLocal.withInitial(() -> nextAdmin.getAndIncrement() % ADMINS);
+
+        Traffic(String baseUrl, SyntheticDataGenerator.Data data, ObjectMapper objectMapper) {
+            this.baseUrl = baseUrl;
+            this.data = data;
+            this.objectMapper = objectMapper;
+        }
+
+        List<LoadDriver.Workload> workloads(int spectators) {
+            int pages = Math.max(1, (data.tournamentIds().size() + 19) / 20);
+            LoadDriver.Workload spectatorWorkload = new LoadDriver.Workload("spectator", spectators, List.of(
+                    new LoadDriver.Operation("GET /api/tournaments/summaries", 35,
+                            get(() -> "/api/tournaments/summaries?size=20&page=" + random(pages))),
+                    new LoadDriver.Operation("GET /api/tournaments/{id}", 25,
+                            get(() -> "/api/tournaments/" + randomOf(data.tournamentIds()))),
+                    new LoadDriver.Operation("GET /api/tournaments/{id}/standings", 10,
+                            get(() -> "/api/tournaments/" + randomOf(data.tournamentIds()) + "/standings?size=50")),
+                    new LoadDriver.Operation("GET /api/matches/{id}/score", 25,
+                            get(() -> "/api/matches/" + randomOf(data.matchIds()) + "/score")),
+                    new LoadDriver.Operation("GET /api/tournaments", 5, get(() -> "/api/tournaments"))));
+            LoadDriver.Workload adminWorkload = new LoadDriver.Workload("admin", ADMINS, List.of(
+                    new LoadDriver.Operation("POST /api/matches/scores", 1, this::submitScores)));
+            return List.of(spectatorWorkload, adminWorkload);
+        }
+
+        private Callable<Boolean> get(Callable<String> path) {
+            return () -> {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path.call())).GET().build();
+                return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            };
+        }
+
+        private boolean submitScores() throws Exception {
+            List<Long> own = new ArrayList<>();
+            for (int t = admin.get(); t < data.openMatchIds().size(); t += ADMINS) {
+                own.addAll(data.openMatchIds().get(t));
+            }
+            if (own.isEmpty()) {
+                return true;
+            }
+            List<Object> scores = new ArrayList<>(SCORES_PER_REQUEST);
+            for (int i = 0; i < SCORES_PER_REQUEST; i++) {
+                scores.add(SyntheticDataGenerator.randomScore(randomOf(own)));
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/matches/scores"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(scores)))
+                    .build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        }
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private static <T> T randomOf(List<T> values) {
+        return values.get(random(values.size()));
+    }
+
+    private static List<Integer> integers(String property, String defaultValue) {
+        return LoadTestApplication.split(System.getProperty(property, defaultValue)).stream().map(Integer::valueOf).toList();
+    }
+}
@@ -0,0 +1,31 @@
+package com.cobaltkeep.tournament.load;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Counts every statement Hibernate prepares, and adds a fixed delay to each one to simulate the
+ * network round trip to a remote database when running against in-memory H2.
+ * The delay is set with -Dbenchmark.statement-latency-ms (default 2, 0 to disable).
+ * Statements sent with JdbcTemplate are not seen.
+ */
+public class LoadTestStatementInspector implements StatementInspector {
+
+    private static final long LATENCY_NANOS = Long.getLong("benchmark.statement-latency-ms", 2) * 1_000_000;
+    private static final LongAdder STATEMENTS = new LongAdder();
+
+    static long statementCount() {
+        return STATEMENTS.sum();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.increment();
+        if (LATENCY_NANOS > 0) {
+            LockSupport.parkNanos(LATENCY_NANOS);
+        }
+        return sql;
+    }
+}
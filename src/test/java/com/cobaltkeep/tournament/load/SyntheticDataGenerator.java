@@ -0,0 +1,97 @@
+package com.cobaltkeep.tournament.load;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.service.MatchService;
+import com.cobaltkeep.tournament.service.PlayerImportService;
+import com.cobaltkeep.tournament.service.RoundAdvancementService;
+import com.cobaltkeep.tournament.service.ScoreSubmission;
+import com.cobaltkeep.tournament.service.TournamentService;
+import org.springframework.context.ApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fills a running application with tournaments, enrolled players and played rounds.
+ * Everything goes through the services, the same way the UI and the REST API create data.
+ */
+final class SyntheticDataGenerator {
+
+    private static final String[] FIRST_NAMES = {"Anna", "Ben", "Carla", "David", "Eva", "Felix", "Greta", "Hugo",
+            "Ida", "Jonas", "Klara", "Lukas", "Mia", "Noah", "Olga", "Paul"};
+    private static final String[] LAST_NAMES = {"Berg", "Fischer", "Hoffmann", "Klein", "Lang", "Meyer", "Neumann",
+            "Richter", "Schmidt", "Wagner", "Weber", "Wolf"};
+
+    /**
+     * What was generated
+     *
+     * @param openMatchIds per tournament, the matches of the latest round, which have no points yet
+     */
+    record Data(List<Long> tournamentIds, List<Long> matchIds, List<List<Long>> openMatchIds) {}
+
+    private final TournamentService tournamentService;
+    private final PlayerImportService playerImportService;
+    private final RoundAdvancementService roundAdvancementService;
+    private final MatchService matchService;
+    private final Random random = new Random(42);
+
+    SyntheticDataGenerator(ApplicationContext context) {
+        this.tournamentService = context.getBean(TournamentService.class);
+        this.playerImportService = context.getBean(PlayerImportService.class);
+        this.roundAdvancementService = context.getBean(RoundAdvancementService.class);
+        this.matchService = context.getBean(MatchService.class);
+    }
+
+    /**
+     * @param completedRounds rounds that get points for every match before the next round is created
+     */
+    Data generate(int tournaments, int playersPerTournament, int completedRounds) throws Exception {
+        List<Long> tournamentIds = new ArrayList<>(tournaments);
+        List<Long> matchIds = new ArrayList<>();
+        List<List<Long>> openMatchIds = new ArrayList<>(tournaments);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        for (int t = 0; t < tournaments; t++) {
+            Tournament tournament = tournamentService.createTournament(new Tournament("Load test " + run + " #" + t,
+                    LocalDate.now().plusDays(t), LocalDate.now().plusDays(t + 2)));
+            tournamentIds.add(tournament.getId());
+
+            // Names are unique per tournament, the import would merge duplicates
+            StringBuilder csv = new StringBuilder("first_name,last_name\n");
+            for (int p = 0; p < playersPerTournament; p++) {
+                csv.append(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]).append(',')
+                        .append(LAST_NAMES[random.nextInt(LAST_NAMES.length)])
+                        .append('-').append(run).append('-').append(t).append('-').append(p).append('\n');
+            }
+            playerImportService.importPlayers(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                    PlayerImportService.Format.CSV, tournament.getId(), progress -> {});
+
+            List<Match> round = roundAdvancementService.createFirstRound(tournament.getId());
+            round.forEach(match -> matchIds.add(match.getId()));
+            for (int r = 0; r < completedRounds && !round.isEmpty(); r++) {
+                matchService.submitScores(round.stream().map(match -> randomScore(match.getId())).toList());
+                round = roundAdvancementService.advance(tournament.getId(), r);
+                round.forEach(match -> matchIds.add(match.getId()));
+            }
+            openMatchIds.add(round.stream().map(Match::getId).toList());
+        }
+        return new Data(tournamentIds, matchIds, openMatchIds);
+    }
+
+    /**
+     * Points for a finished match: one player has 21, the other less
+     */
+    static ScoreSubmission randomScore(Long matchId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int loserPoints = random.nextInt(20);
+        return random.nextBoolean()
+                ? new ScoreSubmission(matchId, 21, loserPoints)
+                : new ScoreSubmission(matchId, loserPoints, 21);
+    }
+}
@@ -0,0 +1,85 @@
+package com.cobaltkeep.tournament.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares platform threads with the "virtual" profile on the REST read path and the score submission path.
+ * Both runs use the same in-memory data, the same connection pool and the same number of clients.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark}. Tuning, as system properties:
+ * benchmark.clients (default 400), benchmark.seconds (default 20), benchmark.statement-latency-ms (default 2).
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 20));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final int TOURNAMENTS = 50;
+    private static final int PLAYERS_PER_TOURNAMENT = 64;
+    private static final int SCORES_PER_REQUEST = 10;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void compareThreadModels() throws Exception {
+        List<LoadDriver.Result> results = new ArrayList<>();
+        results.addAll(run("platform", false));
+        results.addAll(run("virtual", true));
+
+        System.out.println();
+        System.out.println(LoadDriver.Result.header());
+        results.forEach(System.out::println);
+        System.out.println();
+    }
+
+    private List<LoadDriver.Result> run(String mode, boolean virtual) throws Exception {
+        String[] profiles = virtual ? new String[] {"virtual"} : new String[0];
+        try (ConfigurableApplicationContext context = LoadTestApplication.start("benchmark-" + mode, profiles)) {
+            String baseUrl = LoadTestApplication.baseUrl(context);
+            List<Long> matchIds = new SyntheticDataGenerator(context).generate(TOURNAMENTS, PLAYERS_PER_TOURNAMENT, 0).matchIds();
+
+            HttpRequest summaries = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tournaments/summaries?size=20&sort=name"))
+                    .GET().build();
+            LoadDriver.Result read = LoadDriver.run(mode + " GET /api/tournaments/summaries", CLIENTS, WARMUP, DURATION,
+                    () -> client.send(summaries, HttpResponse.BodyHandlers.discarding()).statusCode() == 200);
+
+            LoadDriver.Result write = LoadDriver.run(mode + " POST /api/matches/scores", CLIENTS, WARMUP, DURATION, () -> {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/matches/scores"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(randomScores(matchIds)))
+                        .build();
+                return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            });
+            return List.of(read, write);
+        }
+    }
+
+    private static String randomScores(List<Long> matchIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < SCORES_PER_REQUEST; i++) {
+            int player1Points = random.nextInt(22);
+            int player2Points = player1Points == 21 ? random.nextInt(21) : 21;
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"matchId\":").append(matchIds.get(random.nextInt(matchIds.size())))
+                    .append(",\"player1Points\":").append(player1Points)
+                    .append(",\"player2Points\":").append(player2Points).append('}');
+        }
+        return json.append(']').toString();
+    }
+}
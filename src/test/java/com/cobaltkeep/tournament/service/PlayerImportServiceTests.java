@@ -0,0 +1,163 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.repository.PlayerName;
+import com.cobaltkeep.tournament.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class PlayerImportServiceTests {
+
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Autowired
+    private PlayerImportService playerImportService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @MockitoSpyBean
+    private PlayerRepository playerRepository;
+
+    @Test
+    void csvWithHeaderQuotesAndInvalidLines() throws IOException {
+        String lastName = uniqueName();
+        String csv = "\uFEFFlast_name,Club,first_name\n" +
+                lastName + ",\"Club, One\",Anna\n" +
+                "\n" +
+                "\"O\"\"Neil, " + lastName + "\",,\"Ben\"\n" +
+                "Wolf\n" +
+                "  ,x, \n";
+
+        PlayerImportResult result = importCsv(csv, null);
+
+        // Blank lines and the header are not rows, line numbers count them
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(PlayerImportResult.RowError::getLine).containsExactly(5L, 6L);
+        assertThat(playerRepository.findByFirstNameAndLastName("Anna", lastName)).isPresent();
+        assertThat(playerRepository.findByFirstNameAndLastName("Ben", "O\"Neil, " + lastName)).isPresent();
+    }
+
+    @Test
+    void csvWithoutHeader() throws IOException {
+        String lastName = uniqueName();
+
+        PlayerImportResult result = importCsv("Anna," + lastName + "\nBen," + lastName + "\n", null);
+
+        assertThat(result.getRowsRead()).isEqualTo(2);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getErrorCount()).isZero();
+    }
+
+    @Test
+    void jsonArrayOfPlayers() throws IOException {
+        String lastName = uniqueName();
+        String json = "[{\"firstName\": \"Anna\", \"lastName\": \"" + lastName + "\"}, 42," +
+                " {\"firstName\": \"Ben\"}, {\"lastName\": \"" + lastName + "\", \"firstName\": \"Carl\", \"club\": 1}]";
+
+        PlayerImportResult result = playerImportService.importPlayers(stream(json), PlayerImportService.Format.JSON,
+                null, progress -> {});
+
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(PlayerImportResult.RowError::getLine).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void jsonThatIsNotAnArray() {
+        assertThatThrownBy(() -> playerImportService.importPlayers(stream("{\"firstName\": \"Anna\"}"),
+                PlayerImportService.Format.JSON, null, progress -> {}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void duplicatesInTheFileAndInTheDatabase() throws IOException {
+        String lastName = uniqueName();
+        playerService.createPlayer(new Player("Anna", lastName), null);
+        Tournament tournament = newTournament();
+
+        PlayerImportResult result = importCsv("Anna," + lastName + "\nBen," + lastName + "\nBen," + lastName + "\n"
+                + " Anna , " + lastName + " \n", tournament.getId());
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isEqualTo(3);
+        assertThat(result.getEnrolled()).isEqualTo(2);
+        assertThat(tournamentService.getTournamentById(tournament.getId()).orElseThrow().getPlayers()).hasSize(2);
+    }
+
+    @Test
+    void playerCreatedConcurrentlyCountsAsDuplicate() throws IOException {
+        String lastName = uniqueName();
+        playerService.createPlayer(new Player("Anna", lastName), null);
+        List<PlayerName> existing = playerRepository.findNamesIn(List.of("Anna", "Ben"), List.of(lastName));
+        // The first lookup misses the player, as if it was created right after the lookup
+        doReturn(List.of()).doReturn(existing).when(playerRepository).findNamesIn(anyCollection(), anyCollection());
+
+        PlayerImportResult result = importCsv("Anna," + lastName + "\nBen," + lastName + "\n", null);
+
+        assertThat(result.getErrorCount()).isZero();
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+    }
+
+    @Test
+    void lockingTheTournamentStopsTheImport() {
+        String lastName = uniqueName();
+        Tournament tournament = newTournament();
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            csv.append("Player ").append(i).append(',').append(lastName).append('\n');
+        }
+
+        assertThatThrownBy(() -> playerImportService.importPlayers(stream(csv.toString()), PlayerImportService.Format.CSV,
+                tournament.getId(), progress -> {
+                    // Locked by someone else after the first chunk
+                    Tournament current = tournamentService.getTournamentById(tournament.getId()).orElseThrow();
+                    current.setLocked(true);
+                    tournamentService.updateTournament(tournament.getId(), current);
+                }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(tournamentService.getTournamentById(tournament.getId()).orElseThrow().getPlayers()).hasSize(1000);
+        assertThat(playerRepository.findByFirstNameAndLastName("Player 1499", lastName)).isEmpty();
+    }
+
+    private PlayerImportResult importCsv(String csv, Long tournamentId) throws IOException {
+        return playerImportService.importPlayers(stream(csv), PlayerImportService.Format.CSV, tournamentId, progress -> {});
+    }
+
+    private Tournament newTournament() {
+        return tournamentService.createTournament(new Tournament("Import " + names.incrementAndGet(),
+                LocalDate.now(), LocalDate.now().plusDays(1)));
+    }
+
+    private static String uniqueName() {
+        return "Import " + names.incrementAndGet() + " " + System.nanoTime();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.repository.PlayerName;
+import com.cobaltkeep.tournament.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class PlayerSearchServiceTests {
+
+    @Autowired
+    private PlayerSearchService playerSearchService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Test
+    void exactMatchesThenPrefixesThenSimilarNames() {
+        String name = uniqueName();
+        PlayerSearchService index = new PlayerSearchService();
+        index.loadIndex(() -> List.of(
+                new Name(1L, "Anna", name + "brandy"),
+                new Name(2L, "Ben", name + "brandtner"),
+                new Name(3L, "Carl", name + "brandt"),
+                new Name(4L, "Anna", name + "brandtner"),
+                new Name(5L, "Dora", "Unrelated")));
+
+        assertThat(index.search(name + "brandt", 10)).extracting(PlayerSearchResult::getPlayerId)
+                .containsExactly(3L, 4L, 2L, 1L);
+        assertThat(index.search(name + "brandt", 2)).extracting(PlayerSearchResult::getPlayerId)
+                .containsExactly(3L, 4L);
+        // Typo in the full name
+        assertThat(index.search("Carl " + name + "brnadt", 1)).extracting(PlayerSearchResult::getPlayerId)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void shortPrefixKeepsTheBestHits() {
+        PlayerSearchService index = new PlayerSearchService();
+        List<PlayerName> names = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            names.add(new Name(id, "First" + id, "Last" + (5000 - id)));
+        }
+        names.add(new Name(5001L, "Lena", "Zorn"));
+        names.add(new Name(5002L, "Lou", "Abel"));
+        index.loadIndex(() -> names);
+
+        List<PlayerSearchResult> hits = index.search("l", 3);
+
+        // Hits on the first name rank by last name too
+        assertThat(hits).extracting(PlayerSearchResult::getLastName).containsExactly("Abel", "Last0", "Last1");
+    }
+
+    @Test
+    void renamedAndDeletedPlayersLeaveTheIndex() {
+        String name = uniqueName();
+        Player player = playerService.createPlayer(new Player("Anna", name + "old"), null);
+        assertThat(playerSearchService.search(name + "old", 5)).extracting(PlayerSearchResult::getPlayerId)
+                .containsExactly(player.getId());
+
+        playerService.renamePlayer(player.getId(), "Anna", name + "new");
+
+        // Still similar to the old name, but found under the new one
+        assertThat(playerSearchService.search(name + "old", 5)).extracting(PlayerSearchResult::getLastName)
+                .containsExactly(name + "new");
+        assertThat(playerSearchService.search(name + "new", 5)).extracting(PlayerSearchResult::getScore)
+                .containsExactly(3.0);
+
+        playerService.deletePlayer(player.getId());
+
+        assertThat(playerSearchService.search(name + "new", 5)).isEmpty();
+    }
+
+    @Test
+    void loadDoesNotOverwriteEarlierChanges() {
+        PlayerSearchService index = new PlayerSearchService();
+
+        // The names are read, then the players change before the load applies them
+        index.loadIndex(() -> {
+            List<PlayerName> names = List.of(new Name(1L, "Anna", "Berg"), new Name(2L, "Ben", "Wolf"));
+            index.remove(1L);
+            index.update(2L, "Ben", "Fuchs");
+            return names;
+        });
+
+        assertThat(index.search("Berg", 5)).isEmpty();
+        assertThat(index.search("Wolf", 5)).isEmpty();
+        assertThat(index.search("Fuchs", 5)).extracting(PlayerSearchResult::getPlayerId).containsExactly(2L);
+    }
+
+    @Test
+    void searchBeforeStartupLoadsTheIndex() {
+        String name = uniqueName();
+        playerService.createPlayer(new Player("Anna", name), null);
+        PlayerSearchService index = new PlayerSearchService();
+        ReflectionTestUtils.setField(index, "playerRepository", playerRepository);
+
+        assertThat(index.search(name, 5)).extracting(PlayerSearchResult::getLastName).containsExactly(name);
+    }
+
+    // Letters only, so no other player shares a prefix or a trigram with it
+    private static String uniqueName() {
+        StringBuilder name = new StringBuilder("Q");
+        for (long n = System.nanoTime(); n > 0; n /= 26) {
+            name.append((char) ('a' + n % 26));
+        }
+        return name.toString();
+    }
+
+    private record Name(Long id, String firstName, String lastName) implements PlayerName {
+        @Override
+        public Long getId() { return id; }
+
+        @Override
+        public String getFirstName() { return firstName; }
+
+        @Override
+        public String getLastName() { return lastName; }
+    }
+}
@@ -0,0 +1,87 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Available players filtered by name, when more players matching the name are enrolled than a page of hits holds
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlayerServiceTests {
+
+    private static final AtomicInteger names = new AtomicInteger();
+    private static final int ENROLLED = 250;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    private Long tournamentId;
+    private String name;
+
+    @BeforeAll
+    void enrollMostOfTheMatches() {
+        tournamentId = tournamentService.createTournament(new Tournament("Available " + names.incrementAndGet(),
+                LocalDate.now(), LocalDate.now().plusDays(1))).getId();
+        name = randomName();
+        List<Long> enrolled = new ArrayList<>();
+        // The enrolled players rank first: prefix hits rank by last name
+        for (int i = 0; i < ENROLLED; i++) {
+            enrolled.add(playerService.createPlayer(new Player("Enrolled", name + "a" + (1000 + i)), null).getId());
+        }
+        tournamentService.addPlayersToTournament(tournamentId, enrolled);
+        for (String suffix : List.of("b1", "b2", "b3")) {
+            playerService.createPlayer(new Player("Free", name + suffix), null);
+        }
+    }
+
+    @Test
+    void enrolledMatchesDoNotHideAvailableOnes() {
+        List<Player> page = playerService.getAvailablePlayers(tournamentId, name, PageRequest.of(0, 10));
+
+        assertThat(page).extracting(Player::getLastName).containsExactly(name + "b1", name + "b2", name + "b3");
+        assertThat(playerService.getAvailablePlayers(tournamentId, name, PageRequest.of(1, 2)))
+                .extracting(Player::getLastName).containsExactly(name + "b3");
+    }
+
+    @Test
+    void sortedPageOfMatches() {
+        List<Player> page = playerService.getAvailablePlayers(tournamentId, name,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "lastName")));
+
+        assertThat(page).extracting(Player::getLastName).containsExactly(name + "b3", name + "b2", name + "b1");
+        assertThatThrownBy(() -> playerService.getAvailablePlayers(tournamentId, name, PageRequest.of(0, 10, Sort.by("tournaments"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Random letters, so no other player shares a prefix or is a similar name
+    private static String randomName() {
+        StringBuilder name = new StringBuilder("Q");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 12; i++) {
+            name.append((char) ('a' + random.nextInt(26)));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,140 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+import com.cobaltkeep.tournament.repository.MatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Creating a round is idempotent and serialized per tournament, also against a reset of the bracket
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class RoundAdvancementServiceTests {
+
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Autowired
+    private RoundAdvancementService roundAdvancementService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    private Long tournamentId;
+
+    @BeforeEach
+    void createTournament() {
+        tournamentId = tournamentService.createTournament(new Tournament("Rounds " + names.incrementAndGet(),
+                LocalDate.now(), LocalDate.now().plusDays(1))).getId();
+        List<Long> playerIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            playerIds.add(playerService.createPlayer(new Player("Player", "Rounds " + names.incrementAndGet()), null).getId());
+        }
+        tournamentService.addPlayersToTournament(tournamentId, playerIds);
+    }
+
+    @Test
+    void creatingARoundTwiceReturnsTheSameRound() {
+        List<Match> first = roundAdvancementService.createFirstRound(tournamentId);
+        assertThat(roundAdvancementService.createFirstRound(tournamentId)).extracting(Match::getId)
+                .containsExactlyInAnyOrderElementsOf(ids(first));
+
+        completeRound(first);
+        List<Match> second = roundAdvancementService.advance(tournamentId, 0);
+        assertThat(roundAdvancementService.advance(tournamentId, 0)).extracting(Match::getId)
+                .containsExactlyInAnyOrderElementsOf(ids(second));
+
+        assertThat(matchRepository.findBracketByTournamentId(tournamentId)).hasSize(8);
+    }
+
+    @Test
+    void concurrentCallersCreateTheRoundOnce() throws Exception {
+        List<List<Match>> results = concurrently(
+                () -> roundAdvancementService.createFirstRound(tournamentId),
+                () -> roundAdvancementService.createFirstRound(tournamentId));
+
+        assertThat(ids(results.get(0))).hasSize(4).containsExactlyInAnyOrderElementsOf(ids(results.get(1)));
+        assertThat(matchRepository.findBracketByTournamentId(tournamentId)).hasSize(4);
+    }
+
+    @Test
+    void resetWaitsForARoundBeingCreated() throws Exception {
+        completeRound(roundAdvancementService.createFirstRound(tournamentId));
+
+        concurrently(
+                () -> roundAdvancementService.advance(tournamentId, 0),
+                () -> {
+                    roundAdvancementService.resetBracket(tournamentId);
+                    return List.of();
+                });
+
+        // Either the reset came last and nothing is left, or the next round was created after it and failed
+        // because the first round was gone: never a second round without its first
+        assertThat(matchRepository.findBracketByTournamentId(tournamentId)).isEmpty();
+        assertThat(tournamentService.getTournamentById(tournamentId).orElseThrow().isLocked()).isFalse();
+    }
+
+    private void completeRound(List<Match> round) {
+        round.forEach(match -> matchService.updateMatchPoints(match.getId(), 11, 7));
+    }
+
+    /**
+     * Start both calls at the same time, return their results; a call that failed returns an empty list
+     */
+    @SafeVarargs
+    private static List<List<Match>> concurrently(Callable<List<Match>>... calls) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(calls.length);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<Match>>> futures = new ArrayList<>();
+            for (Callable<List<Match>> call : calls) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return call.call();
+                    } catch (IllegalArgumentException e) {
+                        return List.<Match>of();
+                    }
+                }));
+            }
+            start.countDown();
+            List<List<Match>> results = new ArrayList<>();
+            for (Future<List<Match>> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<Long> ids(List<Match> matches) {
+        return matches.stream().map(Match::getId).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.cobaltkeep.tournament.service;
+
+import com.cobaltkeep.tournament.entity.Match;
+import com.cobaltkeep.tournament.entity.Player;
+import com.cobaltkeep.tournament.entity.Tournament;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Direct writes of a match must not be overwritten by an older update still waiting in the queue.
+ * The scheduled flush is pushed out of the way, the tests flush by hand.
+ */
+@SpringBootTest(properties = {
+        "tournament.scores.write-behind.enabled=true",
+        "tournament.scores.write-behind.durability=BUFFERED",
+        "tournament.scores.write-behind.flush-interval=1h"})
+@ActiveProfiles("h2")
+class ScoreWriteBehindQueueTests {
+
+    private static final AtomicInteger names = new AtomicInteger();
+
+    @Autowired
+    private ScoreWriteBehindQueue queue;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private RoundAdvancementService roundAdvancementService;
+
+    private Match match;
+
+    @BeforeEach
+    void createMatch() {
+        Tournament tournament = tournamentService.createTournament(new Tournament("Write-behind " + names.incrementAndGet(),
+                LocalDate.now(), LocalDate.now().plusDays(1)));
+        tournamentService.addPlayersToTournament(tournament.getId(), List.of(newPlayerId(), newPlayerId()));
+        match = roundAdvancementService.createFirstRound(tournament.getId()).get(0);
+    }
+
+    @Test
+    void directUpdateWritesTheQueuedScoreFirst() {
+        assertThat(queue.submit(List.of(score(11, 3))).get(0).getStatus()).isEqualTo(ScoreResult.Status.QUEUED);
+
+        matchService.updateMatchPoints(match.getId(), 5, 11);
+        queue.flush();
+
+        assertThat(queue.size()).isZero();
+        assertPoints(5, 11);
+    }
+
+    @Test
+    void versionedItemConflictsWithAQueuedUpdate() {
+        queue.submit(List.of(score(11, 3)));
+
+        ScoreSubmission versioned = score(7, 2);
+        versioned.setVersion(match.getVersion());
+        List<ScoreResult> results = queue.submit(List.of(versioned));
+        queue.flush();
+
+        assertThat(results.get(0).getStatus()).isEqualTo(ScoreResult.Status.CONFLICT);
+        assertPoints(11, 3);
+    }
+
+    @Test
+    void laterItemsOfADirectlyWrittenMatchKeepTheirOrder() {
+        ScoreSubmission versioned = score(7, 2);
+        versioned.setVersion(match.getVersion());
+        List<ScoreResult> results = queue.submit(List.of(versioned, score(11, 3)));
+        queue.flush();
+
+        assertThat(results).extracting(ScoreResult::getStatus)
+                .containsExactly(ScoreResult.Status.UPDATED, ScoreResult.Status.UPDATED);
+        assertPoints(11, 3);
+    }
+
+    private ScoreSubmission score(int player1Points, int player2Points) {
+        return new ScoreSubmission(match.getId(), player1Points, player2Points);
+    }
+
+    private void assertPoints(int player1Points, int player2Points) {
+        Match saved = matchService.findMatch(match.getId()).orElseThrow();
+        assertThat(saved.getPlayer1Points()).isEqualTo(player1Points);
+        assertThat(saved.getPlayer2Points()).isEqualTo(player2Points);
+    }
+
+    private Long newPlayerId() {
+        return playerService.createPlayer(new Player("Player", "Write-behind " + names.incrementAndGet()), null).getId();
+    }
+}
@@ -0,0 +1,5 @@
+-- The H2 counterpart of postgresql/V5: matches used identity ids before they moved to matches_seq.
+ALTER TABLE matches ALTER COLUMN id DROP IDENTITY;
+
+-- Hibernate hands out the 50 ids up to the value the sequence returns, the next one has to be past the highest id
+ALTER SEQUENCE matches_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM matches);
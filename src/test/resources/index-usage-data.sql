@@ -0,0 +1,10 @@
+-- 1000 players, 50 tournaments with 20 players each, 80 matches per tournament over 4 rounds.
+-- ANALYZE gives the planner the row counts and selectivities, empty tables make every index look alike.
+INSERT INTO players (first_name, last_name) SELECT 'First ' || x, 'Last ' || MOD(x, 300) FROM SYSTEM_RANGE(1, 1000) AS r(x);
+INSERT INTO tournaments (name, locked, version) SELECT 'Tournament ' || x, FALSE, 0 FROM SYSTEM_RANGE(1, 50) AS r(x);
+INSERT INTO tournament_player (tournament_id, player_id) SELECT t.id, p.id FROM tournaments t JOIN players p ON MOD(p.id, 50) = MOD(t.id, 50);
+INSERT INTO matches (id, tournament_id, bracket_type, round, player1_id, player2_id, winner_id, player1_points, player2_points, version)
+SELECT x, MOD(x, 50) + 1, CASE WHEN MOD(x / 50, 5) = 4 THEN 'losers' ELSE 'main' END, MOD(x / 250, 4),
+       MOD(x, 1000) + 1, MOD(x + 500, 1000) + 1, MOD(x, 1000) + 1, 11, 7, 0
+FROM SYSTEM_RANGE(1, 4000) AS r(x);
+ANALYZE;